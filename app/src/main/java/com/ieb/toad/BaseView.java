@@ -1,84 +1,69 @@
 package com.ieb.toad;
 
 import android.content.Context;
+import android.graphics.Canvas;
+import android.os.HandlerThread;
 import android.util.Log;
+import android.view.Choreographer;
+import android.view.SurfaceHolder;
+import android.view.SurfaceView;
 import android.view.View;
 
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.locks.LockSupport;
 
-public abstract class BaseView extends View {
-    private Timer simulationTimer, backgroundTimer;
-    private TimerTask simulationTimerTask, backgroundTimerTask;
+/**
+ * Game view with its own render and simulation threads.
+ * The render thread draws to the surface once per display refresh, paced by `Choreographer`,
+ * at whatever rate the display runs. Each refresh also ticks the simulation thread, so the
+ * next frame is simulated while the current one is drawn.
+ */
+public abstract class BaseView extends SurfaceView implements SurfaceHolder.Callback {
+    private volatile SimulationThread simulationThread;
+    private RenderThread renderThread;
 
     public BaseView(Context context) {
         super(context);
+        getHolder().addCallback(this);
     }
 
-    /** Stop the activity timer for this view. Should be called when the view is not visible */
+    /** Stop the activity timer for this view. Should be called when the view is not visible.
+     * Waits for any simulation tick in progress to finish */
     public void StopTimer() {
-        if (simulationTimer != null) {
+        if (simulationThread != null) {
             Log.i("BaseView", "Stop timer");
-            if (simulationTimerTask != null) simulationTimerTask.cancel();
-            simulationTimer.cancel();
-            simulationTimer.purge();
-            simulationTimer = null;
-            simulationTimerTask = null;
-        }
-        if (backgroundTimer != null){
-            if (backgroundTimerTask != null) backgroundTimerTask.cancel();
-            backgroundTimer.cancel();
-            backgroundTimer.purge();
-            backgroundTimer = null;
-            backgroundTimerTask = null;
+            simulationThread.finish();
+            simulationThread = null;
         }
     }
 
+    /** Simulation thread timings, in ms. Only used on the simulation thread */
     protected long preTime, postTime, idleTime;
 
     /** Start the activity timer for this view. Should be called when the view becomes visible */
     public void StartTimer() {
         StopTimer();
-        if (simulationTimer == null) {
+        if (simulationThread == null) {
             Log.i("BaseView", "Start timer");
-            simulationTimer = new Timer();
-            simulationTimerTask = new TimerTask() {
-                public void run() {
-                    preTime = System.currentTimeMillis();
-                    idleTime = preTime - postTime;
-
-                    OnSimulationTimerTick(preTime);
-
-                    postTime = System.currentTimeMillis();
-                }
-            };
-            simulationTimer.schedule(simulationTimerTask, 1, SimulationTimerTickRate());
-        }
-
-        if (backgroundTimer == null) {
-            backgroundTimer = new Timer();
-            backgroundTimerTask = new TimerTask() {
-                public void run() {
-                    OnBackgroundTimerTick();
-                }
-            };
-            backgroundTimer.schedule(backgroundTimerTask, 100, BackgroundTimerTickRate());
+            SimulationThread thread = new SimulationThread();
+            thread.start();
+            simulationThread = thread;
         }
     }
 
-    /** Override to set the main simulation tick rate */
-    protected int SimulationTimerTickRate(){ return 16; /* 33 = 30fps; 16 = 60fps; */ }
+    /** Override to perform per-simulation-tick actions. Called once per display frame, on the simulation thread
+     * @param timeNanos time of the display frame, on the `System.nanoTime` clock */
+    protected void OnSimulationTimerTick(long timeNanos){}
 
-    /** Override to set the tick rate of background tasks */
-    protected int BackgroundTimerTickRate(){ return 200; /* 50 = 20fps; 33 = 30fps; */ }
+    /** Override to draw a frame. Called once per display frame, on the render thread */
+    protected void OnDrawFrame(@NotNull Canvas canvas){}
 
-    /** Override to perform per-simulation-tick actions */
-    protected void OnSimulationTimerTick(long time){}
+    /** Override to release memory. Called on the UI thread, with a `ComponentCallbacks2.TRIM_MEMORY_...` level */
+    public void OnTrimMemory(int level){}
 
-    /** Override to perform background actions */
-    protected void OnBackgroundTimerTick(){}
+    /** Override to release resources when the view is finished with. Called on the UI thread, after `StopTimer` */
+    public void OnClose(){}
 
     @Override
     protected void onVisibilityChanged(@NotNull View changedView, int visibility) {
@@ -90,5 +75,116 @@ public abstract class BaseView extends View {
         }
     }
 
+    @Override
+    public void surfaceCreated(@NotNull SurfaceHolder holder) {
+        renderThread = new RenderThread(holder);
+        renderThread.start();
+    }
+
+    @Override
+    public void surfaceChanged(@NotNull SurfaceHolder holder, int format, int width, int height) {
+    }
+
+    /** Stop drawing. The surface can't be used once this returns, so wait for the render thread to finish */
+    @Override
+    public void surfaceDestroyed(@NotNull SurfaceHolder holder) {
+        if (renderThread != null) {
+            renderThread.finish();
+            renderThread = null;
+        }
+    }
+
+    /** Draws a frame on each display refresh, and signals the simulation thread to run the next one */
+    private class RenderThread extends HandlerThread implements Choreographer.FrameCallback {
+        private final SurfaceHolder holder;
+        private volatile boolean running = true;
+        private Choreographer choreographer;
 
+        RenderThread(SurfaceHolder holder) {
+            super("Render");
+            this.holder = holder;
+        }
+
+        @Override
+        protected void onLooperPrepared() {
+            choreographer = Choreographer.getInstance(); // for this thread's looper
+            choreographer.postFrameCallback(this);
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            if (!running) return;
+            choreographer.postFrameCallback(this);
+
+            SimulationThread sim = simulationThread;
+            if (sim != null) sim.frame(frameTimeNanos);
+
+            Canvas canvas = holder.lockHardwareCanvas();
+            if (canvas == null) return; // surface is going away
+            try {
+                OnDrawFrame(canvas);
+            } finally {
+                holder.unlockCanvasAndPost(canvas);
+            }
+        }
+
+        /** Stop drawing, and wait for the frame in progress to finish */
+        void finish() {
+            running = false;
+            quitSafely();
+            try {
+                join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /** Calls `OnSimulationTimerTick` once for each display frame signalled by the render thread, until finished.
+     * If a tick runs past the next frame, the frames it missed are dropped, and the simulator catches up the time */
+    private class SimulationThread extends Thread {
+        private volatile boolean running = true;
+        private volatile long frameNanos; // newest frame signalled
+        private long lastFrameNanos; // newest frame ticked
+
+        SimulationThread() {
+            super("Simulation");
+        }
+
+        /** Tick for a display frame. Called from the render thread */
+        void frame(long nanos) {
+            frameNanos = nanos;
+            LockSupport.unpark(this);
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                long frame = frameNanos;
+                if (frame == lastFrameNanos) {
+                    LockSupport.parkNanos(this, 100_000_000L); // woken by `frame` or `finish`
+                    continue;
+                }
+                lastFrameNanos = frame;
+
+                preTime = System.nanoTime() / 1_000_000L;
+                idleTime = preTime - postTime;
+
+                OnSimulationTimerTick(frame);
+
+                postTime = System.nanoTime() / 1_000_000L;
+            }
+        }
+
+        /** Stop ticking, and wait for the current tick to finish */
+        void finish() {
+            running = false;
+            LockSupport.unpark(this);
+            try {
+                join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
 }
@@ -5,74 +5,122 @@ import android.graphics.BlendMode;
 import android.graphics.Canvas;
 import android.graphics.Paint;
 
-import com.ieb.toad.world.core.Camera;
+import com.ieb.toad.world.Camera;
+import com.ieb.toad.world.RenderSnapshot;
+import com.ieb.toad.world.SnapshotBuffer;
+import com.ieb.toad.world.core.Pool;
 import com.ieb.toad.world.Level;
 
 import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
 
+/** Game screen. The level is simulated and recorded on the simulation thread, into snapshots
+ * that are drawn on the render thread. The render thread never touches the level while it is running */
 @SuppressLint("ViewConstructor")
 public class FirstScreen extends BaseView {
     private final Paint mPaint = new Paint();
     private final Camera camera;
+    private final SnapshotBuffer snapshots = new SnapshotBuffer();
 
-    private boolean frameActive;
+    // Simulation thread only
     private int physicsFrameCount, drawFrameCount;
-    private long lastPhysicsTimeMs, lastDrawTimeMs;
+    private long lastPhysicsNanos, lastDrawNanos;
     private double totalSeconds;
 
+    /** View size, for the simulation thread to record at */
+    private volatile int viewWidth, viewHeight;
+
     private final Level level;
 
     public FirstScreen(final Main context) throws IOException {
         super(context);
-        frameActive = false;
         camera = new Camera(this);
 
         // TODO: move this out of constructor, show loading screen
         level = new Level(context);
+        level.setParallelCollisions(Os.isParallelCollisions(context));
 
         mPaint.setAntiAlias(true);
         mPaint.setFilterBitmap(false);
         mPaint.setDither(false);
         mPaint.setBlendMode(BlendMode.SRC_OVER);
-        this.setBackgroundColor(level.getBackgroundColor());
     }
 
-    /** Action on timer. Does physics and triggered frame draw
-     * @param time system time in milliseconds
+    /** Action on each display frame. Does physics, then records a frame to draw
+     * @param timeNanos time of the display frame
      */
     @Override
-    protected void OnSimulationTimerTick(long time){
-        if (frameActive) return;
-
-        // Do frame logic, call invalidate
-        frameActive = true;
-        if (lastPhysicsTimeMs > time) lastPhysicsTimeMs = time; // clock wrapped. Shouldn't really happen.
+    protected void OnSimulationTimerTick(long timeNanos){
+        if (!level.loadedOk) return;
 
         if (physicsFrameCount > 1) {
-            // Do simulation
-            lastPhysicsTimeMs += level.stepMillis(time - lastPhysicsTimeMs);
+            // Do simulation. The simulator keeps any part-step left over, so we always hand over all the time.
+            // Whole ms are handed over, and the rest carried, so frame rates that aren't whole ms don't drift
+            long ms = (timeNanos - lastPhysicsNanos) / 1_000_000L;
+            level.stepMillis(ms);
+            lastPhysicsNanos += ms * 1_000_000L;
         } else {
-            lastPhysicsTimeMs = time;
+            lastPhysicsNanos = timeNanos;
         }
         physicsFrameCount++;
 
-        frameActive = false;
-        invalidate();
+        recordFrame();
     }
 
-    /** Override to perform background actions */
-    protected void OnBackgroundTimerTick(){
-        if (!level.loadedOk) return;
-        level.backgroundUpdates(camera);
+    /** Draw the level into the back snapshot, and publish it for the render thread */
+    private void recordFrame() {
+        int width = viewWidth, height = viewHeight;
+        if (width <= 0 || height <= 0) return; // not laid out yet
+
+        long frameMs = 1;
+        if (drawFrameCount > 0) {
+            frameMs = (lastPhysicsNanos - lastDrawNanos) / 1_000_000L;
+        }
+        lastDrawNanos = lastPhysicsNanos;
+        drawFrameCount++;
+
+        totalSeconds += frameMs / 1000.0;
+
+        RenderSnapshot frame = snapshots.back();
+        level.chunkBitmaps().nextFrame(snapshots.sequence(), snapshots.oldestHeld()); // don't reuse bitmaps the render thread may still draw
+        camera.resetCount();
+        camera.use(frame, width, height);
+        level.Draw(camera, (int)frameMs);
+        camera.finish();
+
+        frame.frameMs = (int)frameMs;
+        frame.thinksPerFrame = level.thinkers().thinksPerFrame();
+        frame.prefetchHits = level.chunkBitmaps().prefetchHits();
+        frame.prefetchMisses = level.chunkBitmaps().prefetchMisses();
+        frame.idleMs = idleTime;
+        frame.totalSeconds = totalSeconds;
+        snapshots.publish();
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldW, int oldH) {
+        super.onSizeChanged(w, h, oldW, oldH);
+        viewWidth = w;
+        viewHeight = h;
+        VirtualGamepad.setTouchSize(w, h);
     }
 
     @Override
-    public void onDraw(@NotNull final Canvas canvas) {
-        // dimensions of screen last time we did a paint.
-        int width = getWidth();
-        int height = getHeight();
+    public void OnTrimMemory(int trimLevel) {
+        level.trimMemory(trimLevel);
+    }
+
+    @Override
+    public void OnClose() {
+        level.close();
+    }
+
+    /** Draw the newest recorded frame. Called on the render thread */
+    @Override
+    protected void OnDrawFrame(@NotNull final Canvas canvas) {
+        int width = canvas.getWidth();
+        int height = canvas.getHeight();
 
         // check loaded level
         if (!level.loadedOk){
@@ -82,36 +130,17 @@ public class FirstScreen extends BaseView {
             return;
         }
 
-        VirtualGamepad.setTouchSize(width, height);
-
-        if (frameActive) {
-            mPaint.setARGB(255, 255, 0, 0);
-        } else {
-            mPaint.setARGB(255, 128, 0, 255);
-        }
-
-        long frameMs = 1;
-        if (physicsFrameCount > 0) {
-            if (drawFrameCount > 0) {
-                frameMs = lastPhysicsTimeMs - lastDrawTimeMs;
-            }
-            lastDrawTimeMs = lastPhysicsTimeMs;
-            drawFrameCount++;
-        }
-
-        totalSeconds += frameMs / 1000.0;
-
-        camera.resetCount();
-        camera.use(canvas);
-        level.Draw(camera, (int)frameMs);
+        RenderSnapshot frame = snapshots.latest();
+        if (frame == null) return; // nothing recorded yet
+        frame.draw(canvas);
 
+        mPaint.setARGB(255, 128, 0, 255);
         VirtualGamepad.draw(canvas, mPaint, width);
 
-        int dc = camera.getCount();
+        int pa = Pool.totalCreated(); // should stop rising once gameplay is warmed up
         mPaint.setARGB(120,0,0,0);
         Os.setSize(mPaint, 50);
-        Os.boxText(canvas, "t=" + ((int)totalSeconds)+"; ft="+frameMs+"; dc="+dc+"; it="+idleTime,
+        Os.boxText(canvas, "t=" + ((int)frame.totalSeconds)+"; ft="+frame.frameMs+"; dc="+frame.drawCount+"; th="+frame.thinksPerFrame+"; pa="+pa+"; it="+frame.idleMs+"; pf="+frame.prefetchHits+"/"+frame.prefetchMisses,
                 10.0f, height - 80.0f, mPaint);
     }
-}
-
+}
\ No newline at end of file
@@ -43,6 +43,18 @@ public class Main extends Activity {
         this.finish();
     }
 
+    @Override
+    protected void onDestroy() {
+        closeView();
+        super.onDestroy();
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        if (view != null) view.OnTrimMemory(level);
+    }
+
     @Override
     public boolean onTouchEvent(MotionEvent ev){
         VirtualGamepad.motionEvent(ev);
@@ -63,10 +75,18 @@ public class Main extends Activity {
     }
 
     public void showFirstScreen() throws IOException {
-        if (view != null) view.StopTimer();
+        closeView();
         FirstScreen v = new FirstScreen(this);
         setContentView(v);
         view = v;
         view.StartTimer();
     }
+
+    /** Stop the current view, and release what it holds */
+    private void closeView() {
+        if (view == null) return;
+        view.StopTimer();
+        view.OnClose();
+        view = null;
+    }
 }
\ No newline at end of file
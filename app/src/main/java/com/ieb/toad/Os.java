@@ -43,6 +43,21 @@ public class Os {
         return c.getSharedPreferences("scores", Context.MODE_PRIVATE);
     }
 
+    private static SharedPreferences getSettings(Context c){
+        return c.getSharedPreferences("settings", Context.MODE_PRIVATE);
+    }
+
+    /** True if impact tests should run on worker threads. Off unless set */
+    public static boolean isParallelCollisions(Context c){
+        return getSettings(c).getBoolean("parallelCollisions", false);
+    }
+
+    public static void setParallelCollisions(Context c, boolean parallel){
+        SharedPreferences.Editor e = getSettings(c).edit();
+        e.putBoolean("parallelCollisions", parallel);
+        e.apply();
+    }
+
     public static int getLastLevel(Context c){
         return getPref(c).getInt("lastLvl", 0);
     }
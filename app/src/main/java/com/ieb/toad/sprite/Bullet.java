@@ -3,8 +3,10 @@ package com.ieb.toad.sprite;
 import com.ieb.toad.sprite.core.Animation;
 import com.ieb.toad.sprite.core.Flip;
 import com.ieb.toad.sprite.core.SpriteSheetManager;
-import com.ieb.toad.world.core.Camera;
+import com.ieb.toad.world.Camera;
+import com.ieb.toad.world.Drawable;
 import com.ieb.toad.world.core.Collision;
+import com.ieb.toad.world.core.Pool;
 import com.ieb.toad.world.core.SimulationManager;
 import com.ieb.toad.world.core.Thing;
 
@@ -14,23 +16,42 @@ import org.jetbrains.annotations.NotNull;
  * They damage and despawn on player hit.
  * On wall hit, they gain gravity. Will bounce off the hit wall,
  * then fall with no collision until offscreen, then despawn. */
-public class Bullet extends Thing {
+public class Bullet extends Thing implements Drawable {
     public final double SPEED = 500;
 
-    private final Animation anim;
-    private final double direction;
+    private static final Pool<Bullet> pool = new Pool<>("Bullet", 32, Bullet::new, Bullet::clear);
+
+    private SpriteSheetManager sprites;
+    private Animation anim;
+    private double direction;
 
     private double lifeTimer;
     private boolean falling, flicker;
 
-    public Bullet(final SpriteSheetManager sprites, int direction, double x, double y) {
-        anim = new Animation(1000, Animation.FOREVER, sprites.dude, Flip.None, new int[]{30});
+    private Bullet() {
+        thinks = true;
+    }
+
+    /** Get a bullet ready to add to a level.
+     * Bullets are pooled, and go back to the pool when removed from the level */
+    public static Bullet obtain(final SpriteSheetManager sprites, int direction, double x, double y) {
+        Bullet b = pool.obtain();
+        b.init(sprites, direction, x, y);
+        return b;
+    }
+
+    private void init(final SpriteSheetManager sprites, int direction, double x, double y) {
+        if (anim == null || this.sprites != sprites) { // kept between uses
+            anim = new Animation(1000, Animation.FOREVER, sprites.dude, Flip.None, new int[]{30});
+            this.sprites = sprites;
+        }
         this.direction = direction;
 
         falling = false; // switched on hit
         lifeTimer = 10_000.0; // destroy bullet after timer expires, regardless of anything else
         flicker = false;
         type = Collision.BULLET + Collision.PASS_THROUGH; // pass through is removed on impact
+        collidesWith = Collision.PLAYER | Collision.WALL; // fly through anything else
         radius = 4.0;
         px = x;
         py = y + radius;
@@ -55,17 +76,16 @@ public class Bullet extends Thing {
     public void draw(@NotNull Camera camera, int frameMs) {
         if (lifeTimer < 500) flicker = !flicker;
 
-        if (!flicker) camera.drawSprite(anim, px, py, radius);
+        if (!flicker) camera.drawSprite(anim, this, radius);
     }
 
     @Override
-    public boolean preImpactTest(Thing other) {
-        if (falling) return DO_IMPACT; // bouncy 'dead' bullet;
-
-        if (Collision.hasPlayer(other.type)) return DO_IMPACT; // normal collision for player
-        if (Collision.hasWall(other.type)) return DO_IMPACT; // normal collision for wall
+    public void despawned(SimulationManager level) {
+        pool.release(this);
+    }
 
-        return SKIP_IMPACT; // fly through anything else
+    private static void clear(Bullet b) {
+        b.resetMotion();
     }
 
     @Override
@@ -77,6 +97,7 @@ public class Bullet extends Thing {
             if (!falling) {
                 vx /= 2.0;
                 type = Collision.BULLET;
+                collidesWith = Collision.ANY; // bouncy 'dead' bullet
                 falling = true;
                 gravity = 1.0;
             }
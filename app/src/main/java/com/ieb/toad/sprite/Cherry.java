@@ -3,14 +3,15 @@ package com.ieb.toad.sprite;
 import com.ieb.toad.sprite.core.Animation;
 import com.ieb.toad.sprite.core.Flip;
 import com.ieb.toad.sprite.core.SpriteSheetManager;
-import com.ieb.toad.world.core.Camera;
+import com.ieb.toad.world.Camera;
+import com.ieb.toad.world.Drawable;
 import com.ieb.toad.world.core.Collision;
 import com.ieb.toad.world.core.SimulationManager;
 import com.ieb.toad.world.core.Thing;
 
 import org.jetbrains.annotations.NotNull;
 
-public class Cherry extends Thing {
+public class Cherry extends Thing implements Drawable {
     private final Animation anim;
     private boolean collected;
 
@@ -20,6 +21,8 @@ public class Cherry extends Thing {
         //        new int[]{88,89,90,91,90,89}); <-- star
 
         type = Collision.PASS_THROUGH;
+        thinks = true;
+        collidesWith = Collision.PLAYER; // only interact with player
         collected = false;
         radius = 16.0;
         mass = 0.8;
@@ -32,7 +35,7 @@ public class Cherry extends Thing {
 
     @Override
     public void draw(@NotNull Camera camera, int frameMs) {
-        camera.drawSprite(anim, px, py, 30);
+        camera.drawSprite(anim, this, 30);
     }
 
     @Override
@@ -43,12 +46,6 @@ public class Cherry extends Thing {
         return KEEP;
     }
 
-    @Override
-    public boolean preImpactTest(Thing other) {
-        // Only interact with player
-        return Collision.hasPlayer(other.type);
-    }
-
     @Override
     public void impactResolve(SimulationManager level, Thing other, boolean impacted) {
         if (!impacted) return;
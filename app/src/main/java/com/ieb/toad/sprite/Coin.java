@@ -3,14 +3,15 @@ package com.ieb.toad.sprite;
 import com.ieb.toad.sprite.core.Animation;
 import com.ieb.toad.sprite.core.Flip;
 import com.ieb.toad.sprite.core.SpriteSheetManager;
-import com.ieb.toad.world.core.Camera;
+import com.ieb.toad.world.Camera;
+import com.ieb.toad.world.Drawable;
 import com.ieb.toad.world.core.Collision;
 import com.ieb.toad.world.core.SimulationManager;
 import com.ieb.toad.world.core.Thing;
 
 import org.jetbrains.annotations.NotNull;
 
-public class Coin extends Thing {
+public class Coin extends Thing implements Drawable {
     private final Animation anim;
     private boolean collected;
 
@@ -19,6 +20,8 @@ public class Coin extends Thing {
                 new int[]{66,67,68,69,70,65,71});
 
         type = Collision.PASS_THROUGH;
+        thinks = true;
+        collidesWith = Collision.PLAYER; // only interact with player
         collected = false;
         radius = 16.0;
         mass = 0.8;
@@ -27,7 +30,7 @@ public class Coin extends Thing {
 
     @Override
     public void draw(@NotNull Camera camera, int frameMs) {
-        camera.drawSprite(anim, px, py, 30);
+        camera.drawSprite(anim, this, 30);
     }
 
     @Override
@@ -38,12 +41,6 @@ public class Coin extends Thing {
         return KEEP;
     }
 
-    @Override
-    public boolean preImpactTest(Thing other) {
-        // Only interact with player
-        return Collision.hasPlayer(other.type);
-    }
-
     @Override
     public void impactResolve(SimulationManager level, Thing other, boolean impacted) {
         if (!impacted) return;
@@ -2,14 +2,15 @@ package com.ieb.toad.sprite;
 
 import com.ieb.toad.sprite.core.Animation;
 import com.ieb.toad.sprite.core.SpriteSheetManager;
-import com.ieb.toad.world.core.Camera;
+import com.ieb.toad.world.Camera;
+import com.ieb.toad.world.Drawable;
 import com.ieb.toad.world.core.Collision;
 import com.ieb.toad.world.core.SimulationManager;
 import com.ieb.toad.world.core.Thing;
 
 import org.jetbrains.annotations.NotNull;
 
-public class Grass extends Thing {
+public class Grass extends Thing implements Drawable {
     private final Animation anim;
     private boolean collected;
 
@@ -18,6 +19,8 @@ public class Grass extends Thing {
                 new int[]{520,521,522,523,524,525,526});
 
         type = Collision.PASS_THROUGH;
+        thinks = true;
+        collidesWith = Collision.PLAYER; // only interact with player
         collected = false;
         radius = 16.0;
         mass = 0.8;
@@ -30,7 +33,7 @@ public class Grass extends Thing {
 
     @Override
     public void draw(@NotNull Camera camera, int frameMs) {
-        camera.drawSprite(anim, px, py, 0);
+        camera.drawSprite(anim, this, 0);
     }
 
     @Override
@@ -41,12 +44,6 @@ public class Grass extends Thing {
         return KEEP;
     }
 
-    @Override
-    public boolean preImpactTest(Thing other) {
-        // Only interact with player
-        return Collision.hasPlayer(other.type);
-    }
-
     @Override
     public void impactResolve(SimulationManager level, Thing other, boolean impacted) {
         if (!impacted) return;
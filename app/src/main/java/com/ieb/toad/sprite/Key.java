@@ -4,13 +4,14 @@ import com.ieb.toad.sprite.core.Animation;
 import com.ieb.toad.sprite.core.Flip;
 import com.ieb.toad.sprite.core.SpriteSheetManager;
 import com.ieb.toad.sprite.kinds.ThrowableStuff;
-import com.ieb.toad.world.core.Camera;
+import com.ieb.toad.world.Camera;
+import com.ieb.toad.world.Drawable;
 import com.ieb.toad.world.core.Collision;
 import com.ieb.toad.world.core.SimulationManager;
 
 import org.jetbrains.annotations.NotNull;
 
-public class Key extends ThrowableStuff {
+public class Key extends ThrowableStuff implements Drawable {
 
     private final Animation anim;
     private final int spawnY;
@@ -48,7 +49,7 @@ public class Key extends ThrowableStuff {
 
     @Override
     public void draw(@NotNull Camera camera, int frameMs) {
-        camera.drawSprite(anim, px, py, radius);
+        camera.drawSprite(anim, this, radius);
     }
 
     @Override
@@ -3,14 +3,15 @@ package com.ieb.toad.sprite;
 import com.ieb.toad.sprite.core.Animation;
 import com.ieb.toad.sprite.core.Flip;
 import com.ieb.toad.sprite.core.SpriteSheetManager;
-import com.ieb.toad.world.core.Camera;
+import com.ieb.toad.world.Camera;
+import com.ieb.toad.world.Drawable;
 import com.ieb.toad.world.core.Collision;
 import com.ieb.toad.world.core.SimulationManager;
 import com.ieb.toad.world.core.Thing;
 
 import org.jetbrains.annotations.NotNull;
 
-public class Potion extends Thing {
+public class Potion extends Thing implements Drawable {
     private final Animation grassAnim;
     private final Animation bottleAnim;
     private boolean collected;
@@ -22,6 +23,8 @@ public class Potion extends Thing {
                 new int[]{80,81,82,83});
 
         type = Collision.PASS_THROUGH;
+        thinks = true;
+        collidesWith = Collision.PLAYER; // only interact with player
         collected = false;
         radius = 16.0;
         mass = 0.8;
@@ -30,7 +33,7 @@ public class Potion extends Thing {
 
     @Override
     public void draw(@NotNull Camera camera, int frameMs) {
-        camera.drawSprite(grassAnim, px, py, 0);
+        camera.drawSprite(grassAnim, this, 0);
     }
 
     @Override
@@ -42,12 +45,6 @@ public class Potion extends Thing {
         return KEEP;
     }
 
-    @Override
-    public boolean preImpactTest(Thing other) {
-        // Only interact with player
-        return Collision.hasPlayer(other.type);
-    }
-
     @Override
     public void impactResolve(SimulationManager level, Thing other, boolean impacted) {
         if (!impacted) return;
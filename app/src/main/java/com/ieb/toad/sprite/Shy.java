@@ -4,12 +4,13 @@ import com.ieb.toad.sprite.core.Animation;
 import com.ieb.toad.sprite.core.Flip;
 import com.ieb.toad.sprite.core.SpriteSheetManager;
 import com.ieb.toad.sprite.kinds.WalkingCreep;
-import com.ieb.toad.world.core.Camera;
+import com.ieb.toad.world.Camera;
+import com.ieb.toad.world.Drawable;
 import com.ieb.toad.world.core.Collision;
 
 import org.jetbrains.annotations.NotNull;
 
-public class Shy extends WalkingCreep {
+public class Shy extends WalkingCreep implements Drawable {
     private final Animation left;
     private final Animation right;
     private final Animation flipLeft;
@@ -47,7 +48,7 @@ public class Shy extends WalkingCreep {
             anim.advance(dx*10); // animate based on movement
         }
 
-        camera.drawSprite(anim, px, py, radius);
+        camera.drawSprite(anim, this, radius);
     }
 
 }
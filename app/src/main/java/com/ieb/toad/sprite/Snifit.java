@@ -4,12 +4,13 @@ import com.ieb.toad.sprite.core.Animation;
 import com.ieb.toad.sprite.core.Flip;
 import com.ieb.toad.sprite.core.SpriteSheetManager;
 import com.ieb.toad.sprite.kinds.WalkingCreep;
-import com.ieb.toad.world.core.Camera;
+import com.ieb.toad.world.Camera;
+import com.ieb.toad.world.Drawable;
 import com.ieb.toad.world.core.Collision;
 
 import org.jetbrains.annotations.NotNull;
 
-public class Snifit extends WalkingCreep {
+public class Snifit extends WalkingCreep implements Drawable {
     private final Animation left;
     private final Animation right;
     private final Animation flipLeft;
@@ -48,6 +49,6 @@ public class Snifit extends WalkingCreep {
             anim.advance(dx*10); // animate based on movement
         }
 
-        camera.drawSprite(anim, px, py, radius);
+        camera.drawSprite(anim, this, radius);
     }
 }
\ No newline at end of file
@@ -1,7 +1,5 @@
 package com.ieb.toad.sprite;
 
-import android.graphics.Rect;
-
 import com.ieb.toad.input.VirtualGamepad;
 import com.ieb.toad.sprite.core.Animation;
 import com.ieb.toad.sprite.core.Flip;
@@ -12,7 +10,9 @@ import com.ieb.toad.world.constraints.OnLadder;
 import com.ieb.toad.world.constraints.StandingAtDoor;
 import com.ieb.toad.world.constraints.StandingOnCreep;
 import com.ieb.toad.world.constraints.StandingOnGround;
-import com.ieb.toad.world.core.Camera;
+import com.ieb.toad.world.Camera;
+import com.ieb.toad.world.Drawable;
+import com.ieb.toad.world.core.Aabb;
 import com.ieb.toad.world.core.Collision;
 import com.ieb.toad.world.core.Constraint;
 import com.ieb.toad.world.core.SimulationManager;
@@ -22,7 +22,7 @@ import com.ieb.toad.world.portals.DoorBox;
 
 import org.jetbrains.annotations.NotNull;
 
-public class Toad extends Thing {
+public class Toad extends Thing implements Drawable {
 
     private final Animation run_left;
     private final Animation run_right;
@@ -72,10 +72,12 @@ public class Toad extends Thing {
         pull_right = new Animation(200, Animation.ONCE, spriteSheetManager.toad, Flip.Horz, new int[]{19,20,12});
 
         type = Collision.PLAYER;
+        thinks = true;
         radius = 29;
         elasticity = 0.25;
         gravity = 1.0; // fully affected by gravity
         grounded = false;
+        trackContacts = true; // ground and ladder constraints read our contacts
     }
 
 
@@ -100,7 +102,7 @@ public class Toad extends Thing {
         // Check for door transition
         if (atDoor && btnUp && !upLock) {
             // if we have a door linked, maybe travel
-            StandingAtDoor door = (StandingAtDoor)getConstraint(StandingAtDoor.class);
+            StandingAtDoor door = (StandingAtDoor)getConstraint(Constraint.STANDING_AT_DOOR);
             if (door != null){
                 upLock = true; // no more door until 'up' is released
                 if (door.travel(key)) {
@@ -112,31 +114,33 @@ public class Toad extends Thing {
 
     private void handleActionButton(SimulationManager level) {
         if (btnAction && !actionLock){
-            CarryingObject carry = (CarryingObject)getConstraint(CarryingObject.class);
+            CarryingObject carry = (CarryingObject)getConstraint(Constraint.CARRYING_OBJECT);
             if (carry != null){
-                // Break constraint, throw object
+                // Break constraint, throw object. The constraint is pooled, so read it before removing
+                Thing carried = carry.carried;
                 actionLock = true;
                 level.removeConstraint(carry);
-                carry.carried.px += radius * desireDirection;
-                carry.carried.vx = (desireDirection * 250) + vx;
-                carry.carried.vy = Math.abs(vx) * -2.0;
+                carried.px += radius * desireDirection;
+                carried.vx = (desireDirection * 250) + vx;
+                carried.vy = Math.abs(vx) * -2.0;
 
-                if (carry.carried instanceof Creep){
-                    ((Creep)carry.carried).thrown();
+                if (carried instanceof Creep){
+                    ((Creep)carried).thrown();
                 }
                 carrying = false;
             } else {
-                StandingOnCreep over = (StandingOnCreep)getConstraint(StandingOnCreep.class);
+                StandingOnCreep over = (StandingOnCreep)getConstraint(Constraint.STANDING_ON_CREEP);
                 if (over != null) { // Pick up the creep
-                    if (over.bottom instanceof Creep){
-                        ((Creep)over.bottom).carried();
+                    Thing creep = over.bottom;
+                    if (creep instanceof Creep){
+                        ((Creep)creep).carried();
                     }
 
                     pull_right.reset(); pull_left.reset();
                     actionLock = true;
                     carrying = true;
                     level.removeConstraint(over);
-                    level.addConstraint(new CarryingObject(over.bottom, this, radius * 2.8, 400));
+                    level.addConstraint(CarryingObject.obtain(creep, this, radius * 2.8, 400));
                 }
             }
         }
@@ -231,7 +235,7 @@ public class Toad extends Thing {
 
         Animation a = pickAnimation(dx, dy, animMs);
 
-        camera.drawSprite(a, px, py, radius);
+        camera.drawSprite(a, this, radius);
         animMs = 0;
     }
 
@@ -269,26 +273,34 @@ public class Toad extends Thing {
         if (Collision.hasCreep(other.type)){
             // we hit a creep. Might want to stand on it
             if (!grounded && this.canLandOnTop(other)){
-                level.addConstraint(new StandingOnCreep(this, other));
+                level.addConstraint(StandingOnCreep.obtain(this, other));
             }
         } else if (Collision.hasWall(other.type)) {
             // we might be standing on a floor on over a ladder/vine
             Class<? extends Thing> wallType = other.getClass();
 
             if (wallType == LadderPlatform.class) {
-                if (!canClimb) {
-                    level.addConstraint(new OnLadder(this, other));
+                OnLadder ladder = (OnLadder)getConstraint(Constraint.ON_LADDER);
+                if (ladder != null) {
+                    ladder.offer(other); // keep the link as we move between ladder sections
+                } else {
+                    level.addConstraint(OnLadder.obtain(this, other, level.contacts()));
                     canClimb = true;
                     grounded = this.canLandOnTop(other);
                 }
             }
-            else if (!grounded && this.canLandOnTop(other)) {
-                level.addConstraint(new StandingOnGround(this, other));
+            else if (this.canLandOnTop(other)) {
+                StandingOnGround ground = (StandingOnGround)getConstraint(Constraint.STANDING_ON_GROUND);
+                if (ground != null) {
+                    ground.offer(other); // keep the link as we run across seams between platforms
+                } else if (!grounded) {
+                    level.addConstraint(StandingOnGround.obtain(this, other, level.contacts()));
+                }
             }
         } else if (Collision.hasDoor(other.type)) {
             Class<? extends Thing> doorType = other.getClass();
             if (!atDoor && doorType == DoorBox.class){
-                level.addConstraint(new StandingAtDoor(this, (DoorBox)other));
+                level.addConstraint(StandingAtDoor.obtain(this, (DoorBox)other));
             }
         }
     }
@@ -310,39 +322,23 @@ public class Toad extends Thing {
     }
 
     private void updateConstraintState(){
-        // Reset first
-        grounded = false;
-        canClimb = false;
-        carrying = false;
-        atDoor = false;
-        key = null;
-
         // Update based on current constraints
-        for (Constraint c : linkedConstraints()) {
-            Class<? extends Constraint> cType = c.getClass();
-            if (cType == StandingOnCreep.class || cType == StandingOnGround.class){
-                grounded = true;
-            } else if (cType == OnLadder.class){
-                canClimb = true;
-            } else if (cType == CarryingObject.class) {
-                if (((CarryingObject)c).carried instanceof Key) key = (Key)((CarryingObject)c).carried;
-                carrying = true;
-            } else if (cType == StandingAtDoor.class){
-                atDoor = true;
-            }
-        }
+        grounded = hasConstraint(Constraint.STANDING_ON_CREEP) || hasConstraint(Constraint.STANDING_ON_GROUND);
+        canClimb = hasConstraint(Constraint.ON_LADDER);
+        atDoor = hasConstraint(Constraint.STANDING_AT_DOOR);
+
+        CarryingObject carry = (CarryingObject)getConstraint(Constraint.CARRYING_OBJECT);
+        carrying = carry != null;
+        key = (carry != null && carry.carried instanceof Key) ? (Key)carry.carried : null;
     }
 
-    public void resetToCheckpoint(SimulationManager level, Rect lastCheckpoint) {
+    public void resetToCheckpoint(SimulationManager level, Aabb lastCheckpoint) {
         // Reset to last checkpoint
         px = lastCheckpoint.centerX();
         py = lastCheckpoint.bottom - radius - 3.0;
 
-        if (constraints != null){
-            Constraint[] c = constraints.toArray(new Constraint[0]);
-            for (Constraint constraint : c) {
-                level.removeConstraint(constraint);
-            }
+        for (int i = linkedConstraintCount() - 1; i >= 0; i--) {
+            level.removeConstraint(linkedConstraint(i));
         }
 
         grounded = false;
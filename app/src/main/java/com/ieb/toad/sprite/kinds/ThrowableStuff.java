@@ -2,6 +2,7 @@ package com.ieb.toad.sprite.kinds;
 
 import com.ieb.toad.world.constraints.CarryingObject;
 import com.ieb.toad.world.core.Collision;
+import com.ieb.toad.world.core.Constraint;
 import com.ieb.toad.world.core.SimulationManager;
 import com.ieb.toad.world.core.Thing;
 
@@ -14,6 +15,7 @@ public class ThrowableStuff extends Creep {
 
     public ThrowableStuff(){
         type = Collision.CREEP;
+        thinks = true;
         carried = thrown = grounded = false;
         drag = 0.0;
     }
@@ -23,7 +25,7 @@ public class ThrowableStuff extends Creep {
         drag = grounded ? 0.1 : 0.0;
 
         if (carried){
-            CarryingObject carry = (CarryingObject)getConstraint(CarryingObject.class);
+            CarryingObject carry = (CarryingObject)getConstraint(Constraint.CARRYING_OBJECT);
             if (carry == null){ // we've beep dropped
                 thrown();
             }
@@ -39,7 +41,7 @@ public class ThrowableStuff extends Creep {
             }
         }
 
-        grounded = false; // will be reset if still on ground
+        if (!isSleeping()) grounded = false; // will be reset if still on ground. Sleepers keep their last state
         return KEEP;
     }
 
@@ -3,8 +3,8 @@ package com.ieb.toad.sprite.kinds;
 import com.ieb.toad.sprite.Bullet;
 import com.ieb.toad.sprite.core.SpriteSheetManager;
 import com.ieb.toad.world.constraints.CarryingObject;
-import com.ieb.toad.world.constraints.StandingOnCreep;
 import com.ieb.toad.world.core.Collision;
+import com.ieb.toad.world.core.Constraint;
 import com.ieb.toad.world.core.SimulationManager;
 import com.ieb.toad.world.core.Thing;
 
@@ -27,11 +27,17 @@ public abstract class WalkingCreep extends Creep {
     public boolean onLedge; // don't walk, face out and wait
     public boolean isDead; // true when we've been hit by a thrown thing
 
+    // Points around us that are hit-tested each think, all in one batch
+    private static final int SENSE_FRONT = 0, SENSE_PIT = 1, SENSE_BEHIND = 2, SENSE_GROUND = 3, SENSE_COUNT = 4;
+    private final double[] senseX = new double[SENSE_COUNT], senseY = new double[SENSE_COUNT];
+    private final int[] senses = new int[SENSE_COUNT];
+
     public WalkingCreep(final SpriteSheetManager sprites) {
         this.sprites = sprites;
         fireTimer = FIRE_RATE;
         carried = thrown = false;
         type = Collision.CREEP;
+        thinks = true;
         normalRadius = radius = 30;
         mass = 0.8;
         elasticity = 0.5;
@@ -50,7 +56,7 @@ public abstract class WalkingCreep extends Creep {
             if (turnTimer > 0.0) turnTimer -=ms;
         }
 
-        CarryingObject carry = (CarryingObject)getConstraint(CarryingObject.class);
+        CarryingObject carry = (CarryingObject)getConstraint(Constraint.CARRYING_OBJECT);
         if (isDead){
             gravity = 1.0;
             drag = 0.0;
@@ -87,7 +93,7 @@ public abstract class WalkingCreep extends Creep {
             walkingThink(level, ms);
         }
 
-        grounded = false; // will be reset if still on ground
+        if (!isSleeping()) grounded = false; // will be reset if still on ground. Sleepers keep their last state
         return KEEP;
     }
 
@@ -101,14 +107,15 @@ public abstract class WalkingCreep extends Creep {
         if (desireDirection == 0) desireDirection = -1;
 
         // Switch direction if facing wall or pit
-        var frontSense = level.hitTest(px + ((radius + 4) * desireDirection), py);
+        sense(level);
+        var frontSense = senses[SENSE_FRONT];
 
         if (Collision.hasPlayer(frontSense)){
             level.damagePlayer();
         }
 
         if (turnTimer < 1500) { // don't spin on the spot
-            turningLogic(level, frontSense);
+            turningLogic(frontSense);
         }
 
         // Fire a bullet periodically
@@ -123,7 +130,7 @@ public abstract class WalkingCreep extends Creep {
             vx = 0.0;
         } else { // we want to walk
             // go slow if we've being stood on
-            double speed = hasConstraint(StandingOnCreep.class) ? SPEED / 2.0 : SPEED;
+            double speed = hasConstraint(Constraint.STANDING_ON_CREEP) ? SPEED / 2.0 : SPEED;
             if (desireDirection < 0){ // left
                 if (vx > -speed) ax = -ACCEL;
             } else { // right
@@ -132,21 +139,34 @@ public abstract class WalkingCreep extends Creep {
         }
     }
 
-    private void turningLogic(SimulationManager level, int frontSense) {
+    /** Hit-test around us: in front, the ground ahead, behind, and the ground below */
+    private void sense(SimulationManager level) {
+        senseX[SENSE_FRONT] = px + ((radius + 4) * desireDirection);
+        senseY[SENSE_FRONT] = py;
+        senseX[SENSE_PIT] = px + ((radius * 2) * desireDirection);
+        senseY[SENSE_PIT] = py + radius + 5;
+        senseX[SENSE_BEHIND] = px + ((radius + 4) * (-desireDirection));
+        senseY[SENSE_BEHIND] = py;
+        senseX[SENSE_GROUND] = px;
+        senseY[SENSE_GROUND] = py + radius + 5;
+        level.hitTest(senseX, senseY, SENSE_COUNT, senses);
+    }
+
+    private void turningLogic(int frontSense) {
         if (Collision.hasWall(frontSense) || Collision.hasCreep(frontSense)) {
             desireDirection = -desireDirection; // turn on wall
             turnTimer += 500;
         } else {
-            var pitSense = level.hitTest(px + ((radius * 2) * desireDirection), py+radius+5);
+            var pitSense = senses[SENSE_PIT];
 
             if (!Collision.hasWall(pitSense)){
                 // if there is a pit ahead...
 
-                var behindSense = level.hitTest(px + ((radius + 4) * (-desireDirection)), py);
+                var behindSense = senses[SENSE_BEHIND];
                 if (Collision.hasWall(behindSense)) {   // if there is a wall directly behind us
                     onLedge = true;                     // stop here and face out
                 } else {
-                    var groundSense = level.hitTest(px, py+radius+5);
+                    var groundSense = senses[SENSE_GROUND];
                     if (Collision.hasWall(groundSense)) {   // if we are on the ground,
                         desireDirection = -desireDirection; // turn away from the pit
                         turnTimer += 500;
@@ -157,7 +177,7 @@ public abstract class WalkingCreep extends Creep {
     }
 
     private void fireBullet(SimulationManager level) {
-        Bullet b = new Bullet(sprites, desireDirection, px + (desireDirection*radius/2), py);
+        Bullet b = Bullet.obtain(sprites, desireDirection, px + (desireDirection*radius/2), py);
         level.addThing(b);
     }
 
@@ -1,29 +1,32 @@
-package com.ieb.toad.world.core;
+package com.ieb.toad.world;
 
 import android.graphics.Bitmap;
-import android.graphics.Canvas;
-import android.graphics.Paint;
 import android.graphics.Rect;
 
 import com.ieb.toad.FirstScreen;
 import com.ieb.toad.sprite.core.Animation;
+import com.ieb.toad.world.core.Aabb;
+import com.ieb.toad.world.core.Thing;
 import com.ieb.toad.world.loader.CameraZone;
 
 import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
 
-/** Helper to draw on a canvas with an offset */
+/** Helper to draw with an offset.
+ * Drawing is recorded into a `RenderSnapshot`, to be replayed on the render thread */
 public class Camera {
     private final FirstScreen screen;
-    private Canvas canvas;
+    private RenderSnapshot out;
     private int left, top;
     private int cx,cy;
-    private Rect dstRect, srcRect;
+    private final Rect dstRect = new Rect();
+    private final Rect coverage = new Rect(); // area shown, in world co-ords. Set by `centreOn`
     private int width, height;
     private int drawCount;
-    private final Paint paint = new Paint();
+    private int color = 0xFF000000;
     private CameraZone lastZone;
+    private double alpha = 1.0;
 
     public Camera(FirstScreen screen) {
         this.screen = screen;
@@ -35,15 +38,34 @@ public class Camera {
         return "("+cx+","+cy+")";
     }
 
-    /** Set the canvas to draw into */
-    public void use(@NotNull Canvas canvas) {
-        this.canvas = canvas;
-        width = canvas.getWidth();
-        height = canvas.getHeight();
+    /** Start recording into a snapshot, for a screen of the given size. Anything already in the snapshot is cleared */
+    public void use(@NotNull RenderSnapshot snapshot, int width, int height) {
+        out = snapshot;
+        out.reset(width, height);
+        this.width = width;
+        this.height = height;
         left = 0;
         top = 0;
-        dstRect = new Rect();
-        srcRect = new Rect();
+    }
+
+    /** Finish recording, and store the camera position in the snapshot */
+    public void finish() {
+        out.cameraX = cx;
+        out.cameraY = cy;
+        out.cameraLeft = left;
+        out.cameraTop = top;
+        out.drawCount = drawCount;
+        out = null;
+    }
+
+    /** Set how far between simulator steps things should be drawn. See `Simulator.alpha()` */
+    public void setInterpolation(double alpha){
+        this.alpha = alpha;
+    }
+
+    /** How far between simulator steps things should be drawn */
+    public double getInterpolation(){
+        return alpha;
     }
 
     public void resetCount(){
@@ -72,27 +94,30 @@ public class Camera {
         left = cx - (width / 2);
         top = cy - (height / 2);
 
-        if (lastZone == null) return; // No zone. just centre the cam
+        // Force the view inside the zone. No zone: just centre the cam
+        if (lastZone != null) keepInside(lastZone.rect);
 
-        //screen.setBackgroundColor(lastZone.color);
+        coverage.set(left, top, left + width, top + height);
+    }
 
-        // Force the view inside the zone
-        if (top < lastZone.rect.top){
-            top = lastZone.rect.top;
+    /** Move the view to be inside a zone. Runs over top & right if it doesn't fit */
+    private void keepInside(Rect zone) {
+        if (top < zone.top){
+            top = zone.top;
         }
         int bottom = top + height;
-        if (bottom > lastZone.rect.bottom){
-            int dy = bottom - lastZone.rect.bottom;
+        if (bottom > zone.bottom){
+            int dy = bottom - zone.bottom;
             top -= dy;
         }
 
         int right = left + width;
-        if (right > lastZone.rect.right){
-            int dx = right - lastZone.rect.right;
+        if (right > zone.right){
+            int dx = right - zone.right;
             left -= dx;
         }
-        if (left < lastZone.rect.left){
-            left = lastZone.rect.left;
+        if (left < zone.left){
+            left = zone.left;
         }
     }
 
@@ -104,7 +129,7 @@ public class Camera {
         if (dstRect.bottom < 0 || dstRect.top > height) return;
 
         drawCount++;
-        canvas.drawRect(dstRect, paint);
+        out.rect(color, dstRect.left, dstRect.top, dstRect.right, dstRect.bottom);
     }
 
     public void drawBitmap(Bitmap img, int left, int top, int scale) {
@@ -114,24 +139,23 @@ public class Camera {
         int w = img.getWidth();
         int h = img.getHeight();
 
-        srcRect.set(0,0, w, h);
         dstRect.set(left- this.left, top- this.top, left- this.left + w*scale, top- this.top + h*scale);
 
         // skip if offscreen
         if (dstRect.right < 0 || dstRect.left > width) return;
         if (dstRect.bottom < 0 || dstRect.top > height) return;
 
-        canvas.drawBitmap(img, srcRect, dstRect, null);
+        out.bitmap(img, 0, 0, w, h, dstRect.left, dstRect.top, dstRect.right, dstRect.bottom);
     }
 
     public void setARGB(int a, int r, int g, int b) {
-        paint.setARGB(a,r,g,b);
+        color = (a << 24) | (r << 16) | (g << 8) | b;
     }
 
     /** Draw an animation sprite over a rectangle.
      * The sprite will be centred horizontally, and aligned to
      * the baseline of dst. The sprite may be larger or smaller than dest.*/
-    public void drawSprite(Animation a, Rect dst) {
+    public void drawSprite(Animation a, Aabb dst) {
         Rect src = a.rect();
 
         int w = src.width() * a.scale;
@@ -147,7 +171,7 @@ public class Camera {
         if (dstRect.bottom < 0 || dstRect.top > height) return;
 
         drawCount++;
-        canvas.drawBitmap(a.bitmap(), a.rect(), dstRect, null);
+        out.bitmap(a.bitmap(), src.left, src.top, src.right, src.bottom, dstRect.left, dstRect.top, dstRect.right, dstRect.bottom);
     }
 
     /** Draw an animation sprite over a circle.
@@ -169,19 +193,27 @@ public class Camera {
         if (dstRect.bottom < 0 || dstRect.top > height) return;
 
         drawCount++;
-        canvas.drawBitmap(a.bitmap(), src, dstRect, null);
+        out.bitmap(a.bitmap(), src.left, src.top, src.right, src.bottom, dstRect.left, dstRect.top, dstRect.right, dstRect.bottom);
+    }
+
+    /** Draw an animation sprite over a thing's hit circle, between its last two simulator positions.
+     * The sprite will be centred horizontally, and aligned to
+     * the baseline. The sprite may be larger or smaller than the circle.*/
+    public void drawSprite(Animation a, Thing t, double radius) {
+        drawSprite(a, t.drawX(alpha), t.drawY(alpha), radius);
     }
 
-    /** Get the rectangle being displayed by the camera */
+    /** Get the rectangle being displayed by the camera, in world co-ords.
+     * This is updated in place by `centreOn`, so copy it if it needs to be kept */
     public Rect getCoverage() {
-        return null;
+        return coverage;
     }
 
-    /** Clear canvas to current cam zone color, or the default if none set. */
+    /** Clear screen to current cam zone color, or the default if none set. */
     public void clear(int defaultColor) {
         int color = defaultColor;
         if (lastZone != null && lastZone.color != 0) color = lastZone.color;
 
-        canvas.drawColor(0xFF000000 | color);
+        out.clear(0xFF000000 | color);
     }
 }
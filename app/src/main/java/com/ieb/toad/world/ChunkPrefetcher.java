@@ -0,0 +1,102 @@
+package com.ieb.toad.world;
+
+import android.graphics.Rect;
+
+import com.ieb.toad.world.core.Thing;
+import com.ieb.toad.world.loader.LayerChunk;
+import com.ieb.toad.world.loader.TiledLoader;
+import com.ieb.toad.world.portals.DoorThing;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts baking layer chunks before the camera gets to them, so they are ready when first drawn.
+ * Looks at where the player is heading, and at the doors near the player: a door moves the camera
+ * straight to the door it leads to, so the screen around each destination is baked in advance.
+ * <p>
+ * Only used on the simulation thread, from `Level.Draw`.
+ */
+class ChunkPrefetcher {
+    /** How far ahead of the player's velocity to look, in seconds */
+    private static final double LOOKAHEAD_SECONDS = 0.5;
+
+    /** Doors within this many screens of the camera have their destinations prefetched */
+    private static final double DOOR_SCREENS = 0.5;
+
+    private final TiledLoader level;
+    private final DoorThing[] doors; // doors that lead somewhere
+    private final int[] destX, destY; // centre of the door each one leads to
+
+    private final Rect area = new Rect();
+    private final List<LayerChunk> chunks = new ArrayList<>(32);
+
+    /** Build the door graph. Doors don't move, so this is only done once */
+    ChunkPrefetcher(@NotNull TiledLoader level, @NotNull Level doorGraph) {
+        this.level = level;
+
+        List<DoorThing> linked = new ArrayList<>();
+        List<DoorThing> targets = new ArrayList<>();
+        for (DoorThing door : level.doorThings) {
+            DoorThing next = doorGraph.nextDoor(door.target, door.objId);
+            if (next == null) continue;
+            linked.add(door);
+            targets.add(next);
+        }
+
+        doors = linked.toArray(new DoorThing[0]);
+        destX = new int[doors.length];
+        destY = new int[doors.length];
+        for (int i = 0; i < doors.length; i++) {
+            DoorThing next = targets.get(i);
+            destX[i] = (int) ((next.left() + next.right()) / 2.0);
+            destY[i] = (int) ((next.top() + next.bottom()) / 2.0);
+        }
+    }
+
+    /** Prefetch for the next camera positions the player is likely to reach
+     * @param coverage area the camera is showing now, in world co-ords
+     * @param player thing the camera follows */
+    void update(@NotNull Rect coverage, @NotNull Thing player) {
+        if (coverage.isEmpty()) return;
+        int width = coverage.width(), height = coverage.height();
+
+        // Where the camera is heading
+        int dx = (int) (player.vx * LOOKAHEAD_SECONDS);
+        int dy = (int) (player.vy * LOOKAHEAD_SECONDS);
+        if (dx != 0 || dy != 0) {
+            area.set(coverage);
+            area.offset(dx, dy);
+            prefetch(area);
+        }
+
+        // Where nearby doors lead
+        int marginX = (int) (width * DOOR_SCREENS), marginY = (int) (height * DOOR_SCREENS);
+        for (int i = 0; i < doors.length; i++) {
+            DoorThing door = doors[i];
+            if (door.right() < coverage.left - marginX || door.left() > coverage.right + marginX) continue;
+            if (door.bottom() < coverage.top - marginY || door.top() > coverage.bottom + marginY) continue;
+
+            area.set(destX[i] - width / 2, destY[i] - height / 2, destX[i] + width / 2, destY[i] + height / 2);
+            prefetch(area);
+        }
+    }
+
+    private void prefetch(Rect area) {
+        level.getBackgroundChunks(area, chunks);
+        prefetchAll();
+        level.getMainChunks(area, chunks);
+        prefetchAll();
+        level.getForegroundChunks(area, chunks);
+        prefetchAll();
+        chunks.clear();
+    }
+
+    private void prefetchAll() {
+        for (int i = 0; i < chunks.size(); i++) {
+            chunks.get(i).prefetch();
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.ieb.toad.world;
+
+import org.jetbrains.annotations.NotNull;
+
+/** A thing that can be drawn. Things that don't implement this are simulated but never drawn */
+public interface Drawable {
+    /** Render this thing */
+    void draw(@NotNull Camera camera, int frameMs);
+}
@@ -3,11 +3,19 @@ package com.ieb.toad.world;
 import android.graphics.Rect;
 
 import com.ieb.toad.Main;
-import com.ieb.toad.world.core.Camera;
+import com.ieb.toad.world.core.Aabb;
+import com.ieb.toad.world.core.CastHit;
 import com.ieb.toad.world.core.Constraint;
+import com.ieb.toad.world.core.ConstraintList;
+import com.ieb.toad.world.core.ContactCache;
+import com.ieb.toad.world.core.RenderList;
 import com.ieb.toad.world.core.SimulationManager;
 import com.ieb.toad.world.core.Simulator;
+import com.ieb.toad.world.core.StaticGeometry;
 import com.ieb.toad.world.core.Thing;
+import com.ieb.toad.world.core.ThingSlots;
+import com.ieb.toad.world.core.ThinkScheduler;
+import com.ieb.toad.world.loader.ChunkBitmapCache;
 import com.ieb.toad.world.loader.LayerChunk;
 import com.ieb.toad.world.loader.TiledLoader;
 import com.ieb.toad.world.portals.DoorThing;
@@ -17,8 +25,6 @@ import org.jetbrains.annotations.NotNull;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
-import java.util.Enumeration;
 import java.util.List;
 
 /**
@@ -27,17 +33,27 @@ import java.util.List;
 public class Level implements SimulationManager {
 
     /**
-     * Set of things for the level
+     * Things that can be drawn, in drawing order
      */
-    private final List<Thing> things; // TODO: better structure for larger levels
-    private final List<Constraint> constraints; // TODO: better structure for larger levels
+    private final RenderList things;
+    private final ThingSlots bodies; // things that can move, in the order they were added
+    private final StaticGeometry statics; // walls, platforms, and doors
+    private final ConstraintList constraints;
     private final Simulator simulator;
     private final PointThing sampleThing; // Used for hit detection
     private final TiledLoader level;
     public final boolean loadedOk;
-    private Rect lastCheckpoint;
+    private Aabb lastCheckpoint;
     private Camera lastCamera;
 
+    // Camera and frame time for the render list's painter, set for the length of a `Draw` call
+    private Camera drawCamera;
+    private int drawMs;
+    private final RenderList.Painter painter = t -> ((Drawable) t).draw(drawCamera, drawMs);
+
+    private final List<LayerChunk> drawChunks = new ArrayList<>(32); // visible layer chunks, refilled each frame
+    private final ChunkPrefetcher prefetcher;
+
     public Level(Main context) throws IOException {
         simulator = new Simulator(this);
         sampleThing = new PointThing();
@@ -46,50 +62,77 @@ public class Level implements SimulationManager {
         // TODO: show loading message, do this out of constructor
         loadedOk = level.loadLevel(0);
 
-        things = new ArrayList<>();
-        constraints = new ArrayList<>();
-        things.addAll(level.bgThings);
-        things.addAll(level.doorThings);
-        things.addAll(level.fgThings);
-        things.sort(Comparator.comparing(o -> o.layer));
+        things = new RenderList();
+        constraints = new ConstraintList();
+        List<Thing> all = new ArrayList<>();
+        all.addAll(level.bgThings);
+        all.addAll(level.doorThings);
+        all.addAll(level.fgThings);
+
+        // Split walls from moving things, so the simulator only integrates and tests what can move
+        bodies = new ThingSlots();
+        List<Thing> walls = new ArrayList<>();
+        for (Thing t : all) {
+            if (t instanceof Drawable) things.add(t);
+            if (t.immovable) walls.add(t);
+            else bodies.add(t);
+        }
+        statics = new StaticGeometry();
+        statics.build(walls);
+
         lastCheckpoint = level.toad.boundBox();
+        prefetcher = new ChunkPrefetcher(level, this);
     }
 
     public void Draw(@NotNull Camera camera, int frameMs) {
         lastCamera = camera;
-        camera.centreOn(level.toad.px, level.toad.py, level.camZones);
+        double alpha = simulator.alpha();
+        camera.setInterpolation(alpha);
+        camera.centreOn(level.toad.drawX(alpha), level.toad.drawY(alpha), level.camZones);
         Rect coverage = camera.getCoverage();
+        level.tileClock.advance(frameMs); // animated chunks are baked again when drawn, if this moves to a new frame
 
         // Wipe to zone color, or level color if none set
         camera.clear(getBackgroundColor());
 
         // background
-        drawLayer(camera, level.getBackgroundChunks(coverage), frameMs);
+        level.getBackgroundChunks(coverage, drawChunks);
+        drawLayer(camera, drawChunks);
 
         // main
-        drawLayer(camera, level.getMainChunks(coverage), frameMs);
+        level.getMainChunks(coverage, drawChunks);
+        drawLayer(camera, drawChunks);
 
-        for (int i = 0; i < things.size(); i++) {
-            Thing thing = things.get(i);
-            thing.draw(camera, frameMs);
-        }
+        drawCamera = camera;
+        drawMs = frameMs;
+        things.draw(painter);
+        drawCamera = null;
 
         // foreground
-        drawLayer(camera, level.getForegroundChunks(coverage), frameMs);
+        level.getForegroundChunks(coverage, drawChunks);
+        drawLayer(camera, drawChunks);
+        drawChunks.clear();
+
+        // get ready for where the camera is likely to go next
+        prefetcher.update(coverage, level.toad);
     }
 
-    private void drawLayer(Camera camera, Enumeration<LayerChunk> chunks, int frameMs) {
-        if (chunks == null) return;
-        while (chunks.hasMoreElements()) {
-            LayerChunk chunk = chunks.nextElement();
+    /** Bitmaps of the layer chunks, with prefetch stats */
+    public ChunkBitmapCache chunkBitmaps() {
+        return level.chunkBitmaps;
+    }
+
+    private void drawLayer(Camera camera, List<LayerChunk> chunks) {
+        for (int i = 0; i < chunks.size(); i++) {
+            LayerChunk chunk = chunks.get(i);
             camera.drawBitmap(chunk.getBitmap(), chunk.left, chunk.top, TiledLoader.SCALE);
-            chunk.advanceTime(frameMs);
         }
     }
 
     /**
-     * Run the level for up to `ms` milliseconds.
-     * Returns number of milliseconds run.
+     * Run the level for `ms` milliseconds.
+     * Time less than a simulator step is carried over to the next call.
+     * Returns number of milliseconds run. This is less than `ms` only if the simulator had to drop time.
      */
     public long stepMillis(long ms) {
         if (!loadedOk) return ms;
@@ -97,12 +140,13 @@ public class Level implements SimulationManager {
         // TODO: skip physics if doing a transition animation
         // apply physics
         double time = (double) ms;
-        double nextTime = simulator.solve(time, things, constraints);
+        double nextTime = simulator.solve(time, bodies, statics, constraints);
 
         // Check for checkpoint
         int tx = (int)level.toad.px;
         int ty = (int)level.toad.py;
-        for (Rect checkpoint : level.checkpoints) {
+        for (int i = 0; i < level.checkpoints.size(); i++) { // indexed, so no iterator is made each frame
+            Aabb checkpoint = level.checkpoints.get(i);
             if (checkpoint.contains(tx,ty)) lastCheckpoint = checkpoint;
         }
 
@@ -113,17 +157,42 @@ public class Level implements SimulationManager {
     /** Return what is at x,y on this level. Returns one of `Collision` */
     public int hitTest(double x, double y) {
         sampleThing.locate(x,y);
-        int hits = 0;
-        for (int oi = 0; oi < things.size(); oi++) {
-            Thing obj = things.get(oi);
+        return simulator.hitTest(sampleThing);
+    }
 
-            obj.preImpactTest(sampleThing);
-            boolean hit = simulator.hitTest(sampleThing, obj);
-            obj.postImpactTest();
+    @Override
+    public void hitTest(double[] xs, double[] ys, int count, int[] results) {
+        simulator.hitTest(sampleThing, xs, ys, count, results);
+    }
 
-            if (hit) hits = hits | obj.type;
-        }
-        return hits;
+    @Override
+    public int thingsInArea(double left, double top, double right, double bottom, Thing[] out) {
+        return simulator.queryArea(left, top, right, bottom, out);
+    }
+
+    @Override
+    public int thingsNear(double x, double y, double distance, Thing[] out) {
+        return simulator.queryRadius(x, y, distance, out);
+    }
+
+    @Override
+    public boolean raycast(double x0, double y0, double x1, double y1, int mask, CastHit hit) {
+        return simulator.raycast(x0, y0, x1, y1, mask, hit);
+    }
+
+    @Override
+    public boolean circleCast(double x0, double y0, double x1, double y1, double radius, int mask, CastHit hit) {
+        return simulator.circleCast(x0, y0, x1, y1, radius, mask, hit);
+    }
+
+    /** Think schedule for the level, with stats on thinks per frame */
+    public ThinkScheduler thinkers() {
+        return simulator.thinkers();
+    }
+
+    @Override
+    public ContactCache contacts() {
+        return simulator.contacts();
     }
 
     @Override
@@ -133,25 +202,40 @@ public class Level implements SimulationManager {
 
     @Override
     public void removeConstraint(Constraint c) {
+        if (!constraints.remove(c)) return; // already removed
         c.unlink();
-        constraints.remove(c);
+        c.recycle();
     }
 
     @Override
     public void removeThing(Thing t) {
-        if (t.anyConstraints()){
-            for (Constraint c : t.linkedConstraints()) {
-                c.unlink();
-                constraints.remove(c);
-            }
+        boolean removed = t.immovable ? statics.remove(t) : bodies.remove(t);
+        if (!removed) return; // already removed, e.g. hit by two things in one step
+
+        for (int i = t.linkedConstraintCount() - 1; i >= 0; i--) {
+            removeConstraint(t.linkedConstraint(i));
         }
         things.remove(t);
-        things.sort(Comparator.comparing(o -> o.layer));
+        simulator.thingRemoved(t);
         t.despawned(this);
     }
 
+    @Override
+    public Thing findThing(long handle) {
+        return bodies.find(handle);
+    }
+
     @Override
     public void moveNextDoor(String target, int srcObjId) {
+        DoorThing next = nextDoor(target, srcObjId);
+        if (next == null) return; // If no target, do nothing.
+
+        // move toad to new location
+        next.movePlayerToDoor(level.toad); // stop doors triggering until control is released
+    }
+
+    /** Door that `moveNextDoor` goes to from a source door, or null if there is none */
+    DoorThing nextDoor(String target, int srcObjId) {
         DoorThing lowest = null; // door with lowest ID and the same target
         DoorThing next = null; // lowest ID greater than src, with same target
 
@@ -165,12 +249,9 @@ public class Level implements SimulationManager {
             }
         }
 
-        // chose next, or go back to first. If no target, do nothing.
+        // chose next, or go back to first.
         if (next == null) next = lowest;
-        if (next == null) return;
-
-        // move toad to new location
-        next.movePlayerToDoor(level.toad); // stop doors triggering until control is released
+        return next;
     }
 
     @Override
@@ -183,44 +264,48 @@ public class Level implements SimulationManager {
 
     @Override
     public void addThing(Thing thing) {
-        things.add(thing);
-        things.sort(Comparator.comparing(o -> o.layer));
+        if (thing instanceof Drawable) things.add(thing);
+        if (thing.immovable) {
+            statics.add(thing);
+        } else {
+            bodies.add(thing);
+        }
+        simulator.objectsChanged();
     }
 
     @Override
     public boolean isOnScreen(Thing thing) {
-        if (lastCamera == null) return true;
+        return screenDistance(thing) <= 0.0;
+    }
+
+    @Override
+    public double screenDistance(Thing thing) {
+        if (lastCamera == null) return 0.0;
 
         Rect coverage = lastCamera.getCoverage();
-        int left = (int) (thing.px-thing.radius);
-        int top = (int) (thing.py-thing.radius);
-        int right = (int) (thing.px+thing.radius);
-        int bottom = (int) (thing.py+thing.radius);
+        if (coverage.isEmpty()) return 0.0; // not drawn yet
 
-        if (top > coverage.bottom) return false;
-        if (bottom < coverage.top) return false;
-        if (right < coverage.left) return false;
-        return left <= coverage.right;
+        double dx = Math.max(coverage.left - thing.right(), thing.left() - coverage.right);
+        double dy = Math.max(coverage.top - thing.bottom(), thing.top() - coverage.bottom);
+        return Math.max(0.0, Math.max(dx, dy));
     }
 
     public int getBackgroundColor() {
         return level.backgroundColor;
     }
 
-    public void backgroundUpdates(Camera camera) {
-        Rect coverage = camera.getCoverage();
+    /** Split impact tests between moving things across worker threads. Results are the same either way */
+    public void setParallelCollisions(boolean parallel) {
+        simulator.parallelCollisions = parallel;
+    }
 
-        // Update layer animations if required
-        refreshIfDirty(level.getBackgroundChunks(coverage));
-        refreshIfDirty(level.getMainChunks(coverage));
-        refreshIfDirty(level.getForegroundChunks(coverage));
+    /** Stop background threads. Call once the level is no longer being stepped */
+    public void close() {
+        simulator.shutdown();
     }
 
-    private void refreshIfDirty(Enumeration<LayerChunk> chunks) {
-        if (chunks == null) return;
-        while (chunks.hasMoreElements()) {
-            LayerChunk chunk = chunks.nextElement();
-            chunk.refreshIfDirty();
-        }
+    /** Release cached graphics. See `ComponentCallbacks2.onTrimMemory` */
+    public void trimMemory(int trimLevel) {
+        level.chunkBitmaps.trimMemory(trimLevel);
     }
 }
@@ -1,11 +1,8 @@
 package com.ieb.toad.world;
 
-import com.ieb.toad.world.core.Camera;
 import com.ieb.toad.world.core.Collision;
 import com.ieb.toad.world.core.Thing;
 
-import org.jetbrains.annotations.NotNull;
-
 public class PointThing extends Thing {
 
     public PointThing() {
@@ -19,7 +16,4 @@ public class PointThing extends Thing {
         px = x;
         py = y;
     }
-
-    @Override
-    public void draw(@NotNull Camera camera, int frameMs) {}
 }
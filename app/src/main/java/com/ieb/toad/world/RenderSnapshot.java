@@ -0,0 +1,124 @@
+package com.ieb.toad.world;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * One frame of drawing, recorded by `Camera` on the simulation thread and replayed on the render thread.
+ * Holds everything needed to draw: bitmaps with source and screen rectangles (so animation frames
+ * and positions are fixed when recorded), in layer order, and the camera position.
+ * <p>
+ * Snapshots are reused through `SnapshotBuffer`. A snapshot is only written before it is published,
+ * and only read after, so it needs no locks.
+ */
+public class RenderSnapshot {
+    private static final int OP_CLEAR = 0, OP_BITMAP = 1, OP_RECT = 2;
+
+    // Commands, in draw order. Each has an op, a color or bitmap, and 8 coordinates: source then screen rectangle
+    private int[] ops = new int[256];
+    private int[] colors = new int[256];
+    private Bitmap[] bitmaps = new Bitmap[256];
+    private int[] coords = new int[256 * 8];
+    private int count;
+
+    /** Camera centre and top-left, in level pixels, when this was recorded */
+    public int cameraX, cameraY, cameraLeft, cameraTop;
+
+    /** Size of the screen this was recorded for */
+    public int width, height;
+
+    /** Stats for the debug overlay, from the tick that recorded this */
+    public int frameMs, drawCount, thinksPerFrame;
+    public int prefetchHits, prefetchMisses;
+    public long idleMs;
+    public double totalSeconds;
+
+    // Used by `draw`, on the render thread only
+    private final Rect src = new Rect(), dst = new Rect();
+    private final Paint rectPaint = new Paint();
+
+    /** Empty the snapshot, ready to record. Bitmaps are released so they aren't kept alive */
+    void reset(int width, int height) {
+        Arrays.fill(bitmaps, 0, count, null);
+        count = 0;
+        this.width = width;
+        this.height = height;
+    }
+
+    /** Number of commands recorded */
+    public int size() {
+        return count;
+    }
+
+    /** Fill the screen with a color */
+    void clear(int color) {
+        add(OP_CLEAR, color, null);
+    }
+
+    /** Draw part of a bitmap. `src` is in bitmap pixels, `dst` in screen pixels */
+    void bitmap(Bitmap img, int srcLeft, int srcTop, int srcRight, int srcBottom,
+                int dstLeft, int dstTop, int dstRight, int dstBottom) {
+        int c = add(OP_BITMAP, 0, img) * 8;
+        coords[c] = srcLeft;
+        coords[c + 1] = srcTop;
+        coords[c + 2] = srcRight;
+        coords[c + 3] = srcBottom;
+        coords[c + 4] = dstLeft;
+        coords[c + 5] = dstTop;
+        coords[c + 6] = dstRight;
+        coords[c + 7] = dstBottom;
+    }
+
+    /** Fill a rectangle, in screen pixels */
+    void rect(int color, int left, int top, int right, int bottom) {
+        int c = add(OP_RECT, color, null) * 8;
+        coords[c + 4] = left;
+        coords[c + 5] = top;
+        coords[c + 6] = right;
+        coords[c + 7] = bottom;
+    }
+
+    private int add(int op, int color, Bitmap img) {
+        if (count >= ops.length) {
+            int size = ops.length * 2;
+            ops = Arrays.copyOf(ops, size);
+            colors = Arrays.copyOf(colors, size);
+            bitmaps = Arrays.copyOf(bitmaps, size);
+            coords = Arrays.copyOf(coords, size * 8);
+        }
+        ops[count] = op;
+        colors[count] = color;
+        bitmaps[count] = img;
+        return count++;
+    }
+
+    /** Replay the recorded commands onto a canvas */
+    public void draw(@NotNull Canvas canvas) {
+        for (int i = 0; i < count; i++) {
+            int c = i * 8;
+            switch (ops[i]) {
+                case OP_CLEAR:
+                    canvas.drawColor(colors[i]);
+                    break;
+
+                case OP_BITMAP:
+                    src.set(coords[c], coords[c + 1], coords[c + 2], coords[c + 3]);
+                    dst.set(coords[c + 4], coords[c + 5], coords[c + 6], coords[c + 7]);
+                    canvas.drawBitmap(bitmaps[i], src, dst, null);
+                    break;
+
+                case OP_RECT:
+                    dst.set(coords[c + 4], coords[c + 5], coords[c + 6], coords[c + 7]);
+                    rectPaint.setColor(colors[i]);
+                    canvas.drawRect(dst, rectPaint);
+                    break;
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.ieb.toad.world;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lock-free triple buffer of render snapshots, from the simulation thread to the render thread.
+ * The writer fills its back snapshot and publishes it; the reader takes the newest published one.
+ * Neither side ever waits: the writer always has a free snapshot, and the reader keeps drawing
+ * its current one until a newer one is published. Frames the reader doesn't get to are skipped.
+ * <p>
+ * Only one thread may write (`back`, `publish`, `sequence` and `oldestHeld`) and one read (`latest`).
+ * <p>
+ * Snapshots are numbered as they are published, from 1. The writer can find the oldest one the reader
+ * may still be drawing, or may still take, so it knows when things a snapshot refers to are out of use.
+ */
+public class SnapshotBuffer {
+    private static final int INDEX = 3; // mask for a snapshot index in `middle`
+    private static final int FRESH = 4; // set in `middle` when it holds a snapshot the reader hasn't taken
+
+    private final RenderSnapshot[] snapshots = {new RenderSnapshot(), new RenderSnapshot(), new RenderSnapshot()};
+
+    /** Snapshot passed between the threads, with the `FRESH` flag */
+    private final AtomicInteger middle = new AtomicInteger(1);
+
+    private int back = 0; // writer's snapshot. Only used by the writer
+    private int published; // snapshots published so far. Only used by the writer
+    private final int[] sequences = new int[3]; // number each snapshot was last published with, or 0. Only used by the writer
+    private int front = 2; // reader's snapshot. Only used by the reader
+    private boolean anyPublished; // only used by the reader
+
+    /** Snapshot for the writer to record into. It stays the same until `publish` is called */
+    public RenderSnapshot back() {
+        return snapshots[back];
+    }
+
+    /** Hand the back snapshot to the reader, and take a free one to write next */
+    public void publish() {
+        sequences[back] = ++published;
+        back = middle.getAndSet(back | FRESH) & INDEX;
+    }
+
+    /** Number the back snapshot will be published with */
+    public int sequence() {
+        return published + 1;
+    }
+
+    /** Number of the oldest snapshot the reader may still be drawing, or may still take.
+     * Snapshots published before this are finished with. This only rises once the reader takes a newer snapshot,
+     * so it can stay the same for many frames if the reader is slow */
+    public int oldestHeld() {
+        // The reader can only hold the two snapshots the writer doesn't, whichever of them is in `middle`
+        int oldest = Integer.MAX_VALUE;
+        for (int i = 0; i < sequences.length; i++) {
+            if (i != back) oldest = Math.min(oldest, sequences[i]);
+        }
+        return oldest;
+    }
+
+    /** Newest published snapshot, or null if nothing has been published yet.
+     * The result can be read until the next call to `latest` */
+    public RenderSnapshot latest() {
+        if ((middle.get() & FRESH) != 0) {
+            front = middle.getAndSet(front) & INDEX;
+            anyPublished = true;
+        }
+        return anyPublished ? snapshots[front] : null;
+    }
+}
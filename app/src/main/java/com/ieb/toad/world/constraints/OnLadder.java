@@ -2,33 +2,62 @@ package com.ieb.toad.world.constraints;
 
 import com.ieb.toad.sprite.Toad;
 import com.ieb.toad.world.core.Constraint;
+import com.ieb.toad.world.core.Contact;
+import com.ieb.toad.world.core.ContactCache;
+import com.ieb.toad.world.core.Pool;
 import com.ieb.toad.world.core.Thing;
 
 public class OnLadder extends Constraint {
-    private final Toad player;
-    private final Thing ladder;
+    private static final Pool<OnLadder> pool = new Pool<>("OnLadder", 4, OnLadder::new, OnLadder::clear);
 
-    /** Sensor link between player and ladder */
-    public OnLadder(Toad player, Thing ladder){
-        this.player = player;
-        this.ladder = ladder;
+    private Toad player;
+    private ContactCache contacts;
+    private Thing ladder;
 
-        player.linkConstraint(this);
+    private OnLadder() {
+        super(ON_LADDER);
+    }
+
+    /** Sensor link between player and ladder. Reads the player's ladder contact from `contacts`.
+     * Taken from a pool, and returned when removed from the level */
+    public static OnLadder obtain(Toad player, Thing ladder, ContactCache contacts){
+        OnLadder c = pool.obtain();
+        c.player = player;
+        c.ladder = ladder;
+        c.contacts = contacts;
+
+        player.linkConstraint(c);
+        return c;
+    }
+
+    /** Move to a different ladder, if it is closer than the current one.
+     * This keeps the link as we climb from one section to the next */
+    public void offer(Thing other) {
+        if (other == ladder) return;
+        Contact next = contacts.find(player, other);
+        if (next == null) return;
+
+        Contact now = contacts.find(player, ladder);
+        if (now == null || distanceSquared(next, other) < distanceSquared(now, ladder)) ladder = other;
+    }
+
+    private double distanceSquared(Contact contact, Thing t) {
+        double dx = contact.x(t) - player.px;
+        double dy = contact.y(t) - player.py;
+        return (dx * dx) + (dy * dy);
     }
 
     @Override
     public int apply(double timeMs) {
-        // Make sure the ground is under us
-        ladder.preImpactTest(player);
+        // Use the ladder's impact point from the last time we touched it
+        Contact contact = contacts.find(player, ladder);
+        if (contact == null) return BROKEN; // not touched recently
 
-        double dx = ladder.px - player.px;
+        double dx = contact.x(ladder) - player.px;
         double adx = Math.abs(dx);
-        double dy = ladder.py - player.py;
+        double dy = contact.y(ladder) - player.py;
         double ady = Math.abs(dy);
 
-        // clean up
-        ladder.postImpactTest();
-
         if (ady > (player.radius + 1.0)) return BROKEN; // over the top
         if (ady < -player.radius) return BROKEN; // off bottom
         if (adx > player.radius) return BROKEN;
@@ -43,4 +72,15 @@ public class OnLadder extends Constraint {
     public void unlink() {
         player.unlinkConstraint(this);
     }
+
+    @Override
+    public void recycle() {
+        pool.release(this);
+    }
+
+    private static void clear(OnLadder c) {
+        c.player = null;
+        c.ladder = null;
+        c.contacts = null;
+    }
 }
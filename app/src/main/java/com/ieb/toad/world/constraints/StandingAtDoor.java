@@ -1,27 +1,36 @@
 package com.ieb.toad.world.constraints;
 
 import com.ieb.toad.world.core.Constraint;
+import com.ieb.toad.world.core.Pool;
 import com.ieb.toad.world.core.Thing;
 import com.ieb.toad.sprite.Key;
 import com.ieb.toad.world.portals.DoorBox;
 
 /** Link player to a door. Link breaks if distance is exceeded. */
 public class StandingAtDoor extends Constraint {
+    private static final Pool<StandingAtDoor> pool = new Pool<>("StandingAtDoor", 4, StandingAtDoor::new, StandingAtDoor::clear);
 
-    public final Thing toad;
-    public final DoorBox door;
-    private final double sqrDistance;
+    public Thing toad;
+    public DoorBox door;
+    private double sqrDistance;
 
-    /** Link player to a door. Link breaks if distance is exceeded. */
-    public StandingAtDoor(Thing toad, DoorBox door){
-        this.toad = toad;
-        this.door = door;
+    private StandingAtDoor() {
+        super(STANDING_AT_DOOR);
+    }
+
+    /** Link player to a door. Link breaks if distance is exceeded.
+     * Taken from a pool, and returned when removed from the level */
+    public static StandingAtDoor obtain(Thing toad, DoorBox door){
+        StandingAtDoor c = pool.obtain();
+        c.toad = toad;
+        c.door = door;
 
         double distance = toad.radius + door.radius;
-        sqrDistance = distance * distance;
+        c.sqrDistance = distance * distance;
 
-        toad.linkConstraint(this);
-        door.linkConstraint(this);
+        toad.linkConstraint(c);
+        door.linkConstraint(c);
+        return c;
     }
 
     @Override
@@ -40,8 +49,18 @@ public class StandingAtDoor extends Constraint {
         door.unlinkConstraint(this);
     }
 
+    @Override
+    public void recycle() {
+        pool.release(this);
+    }
+
     /** Player has tried to use the door. Returns true is door worked. */
     public boolean travel(Key key) {
         return door.trigger(key);
     }
+
+    private static void clear(StandingAtDoor c) {
+        c.toad = null;
+        c.door = null;
+    }
 }
@@ -0,0 +1,302 @@
+package com.ieb.toad.world.loader;
+
+import android.content.ComponentCallbacks2;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Level-wide cache of layer chunk bitmaps, held inside a byte budget.
+ * When the budget is used up, the least recently used chunk that isn't still on screen is evicted, and its
+ * bitmap goes into a pool to be reused by the next chunk, rather than allocating a new one.
+ * <p>
+ * Chunks are baked on a worker thread, into a back bitmap that is swapped in when it is complete.
+ * The draw path only ever sees finished bitmaps: a chunk that isn't baked yet isn't drawn,
+ * and an animated chunk shows its last bake until the next one is ready. Chunks with animated
+ * tiles are baked again when drawn after the level's `TileClock` moves to a new frame.
+ * Only the animated tiles are drawn again, into the chunk's spare: the bitmap its last-but-one bake
+ * was drawn into, which already holds the static tiles.
+ * <p>
+ * Recorded snapshots can hold a bitmap until the render thread is finished with them, so a bitmap is
+ * never drawn into again while a snapshot the render thread may still draw could hold it.
+ * Frames are numbered by the snapshot they are recorded into, and `nextFrame` is told the oldest one still in use.
+ * Chunks drawn in a frame still in use are never evicted, even if that goes over budget, and bitmaps
+ * replaced by a new bake are kept in quarantine until then before they become their chunk's spare.
+ * <p>
+ * Used from the simulation thread (drawing), the worker, and the UI thread (`trimMemory`), so all access is synchronised on the cache.
+ * The lock is never held while drawing tiles.
+ */
+public class ChunkBitmapCache {
+    /** Default budget: 64 chunks of 16x16 tiles at 16px */
+    public static final long DEFAULT_BUDGET = 16L * 1024 * 1024;
+
+    /** A bitmap replaced by a newer bake, the chunk it was baked for, and the frame it was replaced in */
+    private static class Retired {
+        final Bitmap bitmap;
+        final LayerChunk chunk;
+        final int frame;
+
+        Retired(Bitmap bitmap, LayerChunk chunk, int frame) {
+            this.bitmap = bitmap;
+            this.chunk = chunk;
+            this.frame = frame;
+        }
+    }
+
+    // Chunks with bitmaps, least recently drawn first
+    private final LinkedHashMap<LayerChunk, Bitmap> live = new LinkedHashMap<>(64, 0.75f, true);
+    private final List<Bitmap> pool = new ArrayList<>(8); // evicted bitmaps, ready to reuse
+    private final ArrayDeque<Retired> quarantine = new ArrayDeque<>(8); // replaced bitmaps, oldest first
+    private final LinkedHashMap<LayerChunk, Bitmap> spares = new LinkedHashMap<>(16); // earlier bakes of live chunks, ready to redraw
+    private final ThreadPoolExecutor baker;
+    private long budget;
+    private long liveBytes, pooledBytes, quarantinedBytes, spareBytes;
+
+    // Only used by the worker
+    private final Canvas canvas = new Canvas();
+    private final Rect dst = new Rect();
+
+    // Set by `nextFrame` on the simulation thread. The worker only reads them under the lock, when swapping in a bake
+    private int frame; // snapshot being recorded
+    private int oldestHeld; // oldest frame the render thread may still draw. Bitmaps last recorded before this are free
+
+    // Prefetch stats. A chunk coming into view is a hit if it is already baked, and a miss if it isn't
+    private int prefetches, hits, misses;
+
+    public ChunkBitmapCache(long budget) {
+        this.budget = budget;
+
+        // One worker, so a chunk is never baked twice at once. It stops when there is nothing to bake
+        baker = new ThreadPoolExecutor(1, 1, 5, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "ChunkBaker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        baker.allowCoreThreadTimeOut(true);
+    }
+
+    /** Change the byte budget. Off-screen chunks are evicted straight away if over the new budget */
+    public synchronized void setBudget(long budget) {
+        this.budget = budget;
+        shrinkTo(budget);
+    }
+
+    /** Start a drawn frame. Chunks not drawn since `oldestHeld` can then be evicted, and bitmaps replaced before it can be reused.
+     * @param frame number of the snapshot this frame is recorded into. See `SnapshotBuffer.sequence`
+     * @param oldestHeld oldest snapshot the render thread may still draw. See `SnapshotBuffer.oldestHeld` */
+    public synchronized void nextFrame(int frame, int oldestHeld) {
+        this.frame = frame;
+        this.oldestHeld = oldestHeld;
+
+        while (!quarantine.isEmpty() && quarantine.peekFirst().frame < oldestHeld) {
+            Retired retired = quarantine.pollFirst();
+            Bitmap bitmap = retired.bitmap;
+            quarantinedBytes -= bitmap.getAllocationByteCount();
+
+            if (live.containsKey(retired.chunk) && !spares.containsKey(retired.chunk)) {
+                spares.put(retired.chunk, bitmap);
+                spareBytes += bitmap.getAllocationByteCount();
+            } else {
+                pool.add(bitmap);
+                pooledBytes += bitmap.getAllocationByteCount();
+            }
+        }
+    }
+
+    /** Bitmap for a chunk, or null if it isn't baked yet. A bake is started if needed */
+    synchronized Bitmap get(@NotNull LayerChunk chunk) {
+        boolean comingIntoView = frame - chunk.lastDrawnFrame > 1;
+        chunk.lastDrawnFrame = frame;
+        Bitmap bitmap = live.get(chunk); // also moves the chunk to most-recently-used
+
+        if (comingIntoView) {
+            if (bitmap == null) misses++;
+            else hits++;
+        }
+
+        if (bitmap == null || chunk.isStale()) startBake(chunk);
+        return bitmap;
+    }
+
+    /** Start baking a chunk that is likely to be drawn soon, if it isn't baked already */
+    synchronized void prefetch(@NotNull LayerChunk chunk) {
+        if (chunk.baking || live.containsKey(chunk)) return;
+        prefetches++;
+        startBake(chunk);
+    }
+
+    /** Number of chunks baked ahead of being drawn */
+    public synchronized int prefetchCount() {
+        return prefetches;
+    }
+
+    /** Number of times a chunk came into view already baked */
+    public synchronized int prefetchHits() {
+        return hits;
+    }
+
+    /** Number of times a chunk came into view before it was baked, so was missing from the frame */
+    public synchronized int prefetchMisses() {
+        return misses;
+    }
+
+    /**
+     * Release memory, in response to `ComponentCallbacks2.onTrimMemory`.
+     * Moderate pressure only empties the pool and drops spares; low memory evicts down to half the budget;
+     * critical pressure, or the app going out of view, evicts everything that isn't on screen.
+     */
+    public synchronized void trimMemory(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+            shrinkTo(0);
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            shrinkTo(budget / 2);
+        } else {
+            clearPool();
+        }
+    }
+
+    /** Queue a chunk for the worker, unless it is already queued. It is baked at the current animation frame */
+    private void startBake(LayerChunk chunk) {
+        if (chunk.baking) return;
+        chunk.baking = true;
+        chunk.queuedFrame = chunk.animationFrame();
+        baker.execute(chunk.bakeTask);
+    }
+
+    /** Draw a chunk into a back bitmap, then swap it in. Runs on the worker.
+     * If the chunk has a spare, only the animated tiles are drawn into it. Otherwise, if the chunk is already
+     * baked, its current bitmap is copied and only animated tiles are drawn; if not, every tile is drawn */
+    void bake(@NotNull LayerChunk chunk) {
+        Bitmap back, front = null;
+        boolean all;
+        int animationFrame;
+        synchronized (this) {
+            animationFrame = chunk.queuedFrame;
+            back = spares.remove(chunk);
+            if (back != null) {
+                spareBytes -= back.getAllocationByteCount();
+                all = false;
+            } else {
+                back = obtain(chunk.pixelWidth(), chunk.pixelHeight());
+                front = live.get(chunk);
+                all = front == null;
+            }
+        }
+
+        // Only the worker can see `back` until it is swapped in. Only the worker draws into bitmaps, so `front` stays as it is
+        canvas.setBitmap(back);
+        if (all) chunk.drawAll(canvas, dst, animationFrame);
+        else chunk.drawAnimated(canvas, dst, front, animationFrame);
+        canvas.setBitmap(null);
+
+        synchronized (this) {
+            front = live.put(chunk, back); // may have been evicted while baking
+            liveBytes += back.getAllocationByteCount();
+            if (front != null) {
+                // Snapshots up to the one being recorded now may hold the old bitmap
+                liveBytes -= front.getAllocationByteCount();
+                quarantine.addLast(new Retired(front, chunk, frame));
+                quarantinedBytes += front.getAllocationByteCount();
+            }
+            chunk.baking = false;
+
+            shrinkTo(budget);
+        }
+    }
+
+    /** Take a bitmap from the pool, or make a new one */
+    private Bitmap obtain(int width, int height) {
+        Bitmap bitmap = takePooled(width, height);
+        if (bitmap == null && usedBytes() + width * height * 4L > budget && evictOldest()) {
+            bitmap = takePooled(width, height);
+        }
+
+        if (bitmap == null) return Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+
+        bitmap.eraseColor(0); // transparent. Redraw skips empty tiles, so old ones must be cleared
+        return bitmap;
+    }
+
+    private Bitmap takePooled(int width, int height) {
+        for (int i = pool.size() - 1; i >= 0; i--) {
+            Bitmap bitmap = pool.get(i);
+            if (bitmap.getWidth() != width || bitmap.getHeight() != height) continue;
+
+            pool.remove(i);
+            pooledBytes -= bitmap.getAllocationByteCount();
+            return bitmap;
+        }
+        return null;
+    }
+
+    /** Bytes held by all bitmaps, whether live, spare, quarantined or pooled */
+    private long usedBytes() {
+        return liveBytes + spareBytes + pooledBytes + quarantinedBytes;
+    }
+
+    /** Drop pooled, spare and quarantined bitmaps, then evict least recently drawn chunks, until memory use is at most `target` bytes.
+     * Dropping is always safe: the bitmap isn't drawn into again, and snapshots still holding it keep it alive */
+    private void shrinkTo(long target) {
+        while (usedBytes() > target) {
+            if (!pool.isEmpty()) {
+                Bitmap bitmap = pool.remove(pool.size() - 1);
+                pooledBytes -= bitmap.getAllocationByteCount();
+            } else if (!spares.isEmpty()) {
+                Iterator<Bitmap> spare = spares.values().iterator();
+                spareBytes -= spare.next().getAllocationByteCount();
+                spare.remove();
+            } else if (!quarantine.isEmpty()) {
+                Bitmap bitmap = quarantine.pollFirst().bitmap;
+                quarantinedBytes -= bitmap.getAllocationByteCount();
+            } else if (!evictOldest()) {
+                return; // everything left may still be on screen
+            }
+        }
+    }
+
+    private void clearPool() {
+        pool.clear();
+        pooledBytes = 0;
+        spares.clear();
+        spareBytes = 0;
+    }
+
+    /** Move the least recently used chunk's bitmap, and its spare, to the pool.
+     * Chunks drawn in a frame the render thread may still draw are skipped. A new bake also counts as a use,
+     * so a chunk that can't be evicted yet may come before ones that can.
+     * Returns false if every chunk was drawn too recently to release */
+    private boolean evictOldest() {
+        Iterator<Map.Entry<LayerChunk, Bitmap>> oldest = live.entrySet().iterator();
+        while (oldest.hasNext()) {
+            Map.Entry<LayerChunk, Bitmap> entry = oldest.next();
+            if (entry.getKey().lastDrawnFrame >= oldestHeld) continue;
+
+            Bitmap bitmap = entry.getValue();
+            oldest.remove();
+            liveBytes -= bitmap.getAllocationByteCount();
+            pool.add(bitmap);
+            pooledBytes += bitmap.getAllocationByteCount();
+
+            Bitmap spare = spares.remove(entry.getKey());
+            if (spare != null) {
+                spareBytes -= spare.getAllocationByteCount();
+                pool.add(spare);
+                pooledBytes += spare.getAllocationByteCount();
+            }
+            return true;
+        }
+        return false;
+    }
+}
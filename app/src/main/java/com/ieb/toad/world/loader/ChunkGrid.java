@@ -0,0 +1,93 @@
+package com.ieb.toad.world.loader;
+
+import android.graphics.Rect;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Chunks of one tile layer, indexed by integer chunk co-ordinates.
+ * Chunks are added while loading, then `build` lays them out in a dense grid over the level's
+ * chunk range, so finding the chunks under the camera is a direct lookup of the covered cells.
+ * The work per lookup depends on the screen size, not on the level size.
+ */
+public class ChunkGrid {
+    private final List<LayerChunk> loading = new ArrayList<>(64); // chunks added since last `build`
+
+    private LayerChunk[] cells = new LayerChunk[0]; // row-major, `columns` wide. Null where the layer has no chunk
+    private int columns, rows;
+    private int minX, minY; // chunk co-ords of cells[0]
+    private int cellWidth = 1, cellHeight = 1; // chunk size, in world co-ords
+
+    /** Add a chunk. It can't be found until `build` is called */
+    public void add(@NotNull LayerChunk chunk) {
+        loading.add(chunk);
+    }
+
+    /** Index the chunks added so far, along with any already indexed.
+     * @param width width of each chunk, in world co-ords
+     * @param height height of each chunk, in world co-ords */
+    public void build(int width, int height) {
+        cellWidth = Math.max(1, width);
+        cellHeight = Math.max(1, height);
+        for (LayerChunk cell : cells) if (cell != null) loading.add(cell);
+
+        if (loading.isEmpty()) {
+            cells = new LayerChunk[0];
+            columns = rows = 0;
+            return;
+        }
+
+        int x0 = Integer.MAX_VALUE, y0 = Integer.MAX_VALUE, x1 = Integer.MIN_VALUE, y1 = Integer.MIN_VALUE;
+        for (int i = 0; i < loading.size(); i++) {
+            LayerChunk chunk = loading.get(i);
+            int x = Math.floorDiv(chunk.left, cellWidth);
+            int y = Math.floorDiv(chunk.top, cellHeight);
+            x0 = Math.min(x0, x);
+            y0 = Math.min(y0, y);
+            x1 = Math.max(x1, x);
+            y1 = Math.max(y1, y);
+        }
+
+        minX = x0;
+        minY = y0;
+        columns = x1 - x0 + 1;
+        rows = y1 - y0 + 1;
+        cells = new LayerChunk[columns * rows];
+        for (int i = 0; i < loading.size(); i++) {
+            LayerChunk chunk = loading.get(i);
+            int x = Math.floorDiv(chunk.left, cellWidth) - minX;
+            int y = Math.floorDiv(chunk.top, cellHeight) - minY;
+            cells[y * columns + x] = chunk;
+        }
+        loading.clear();
+    }
+
+    /**
+     * Fill `out` with chunks that are at least partially inside `coverage`, in row order.
+     * `out` is cleared first. If `coverage` is null, every chunk is returned.
+     * @param coverage area to find, in world co-ords
+     */
+    public void find(Rect coverage, @NotNull List<LayerChunk> out) {
+        out.clear();
+        if (cells.length == 0) return;
+
+        int x0 = 0, y0 = 0, x1 = columns - 1, y1 = rows - 1;
+        if (coverage != null) {
+            x0 = Math.max(x0, Math.floorDiv(coverage.left, cellWidth) - minX);
+            y0 = Math.max(y0, Math.floorDiv(coverage.top, cellHeight) - minY);
+            x1 = Math.min(x1, Math.floorDiv(coverage.right, cellWidth) - minX);
+            y1 = Math.min(y1, Math.floorDiv(coverage.bottom, cellHeight) - minY);
+        }
+
+        for (int y = y0; y <= y1; y++) {
+            int row = y * columns;
+            for (int x = x0; x <= x1; x++) {
+                LayerChunk chunk = cells[row + x];
+                if (chunk != null) out.add(chunk);
+            }
+        }
+    }
+}
@@ -9,68 +9,94 @@ import android.graphics.Rect;
 import com.ieb.toad.sprite.core.SpriteSheetManager;
 import com.ieb.toad.sprite.core.TileSheet;
 
+import java.util.Arrays;
+
 public class LayerChunk {
     private final int[] tiles;
     private final int width;
     private final int height;
     private final SpriteSheetManager sprites;
+    private final ChunkBitmapCache bitmaps;
+    private final TileClock clock;
 
     public final int left;
     public final int top;
-    public final String key;
 
-    private Bitmap cache;
-    private int animationTime, animationFrame;
-    private boolean dirty, animated;
+    int lastDrawnFrame = Integer.MIN_VALUE / 2; // set by `bitmaps`. Starts as 'never'
+    boolean baking; // queued or being baked. Set by `bitmaps`
+    int queuedFrame; // animation frame to bake. Set by `bitmaps` when queued
+    final Runnable bakeTask;
+    private volatile int bakedFrame; // animation frame of the last bake
+    private int[] animatedCells = new int[0]; // indexes into `tiles` of animated tiles, in load order
+    private int animatedCount;
     private final Paint paint;
 
     /**
      * Create a new layer chunk
      * @param spriteMgr source for tile graphics
+     * @param bitmapCache holds the drawn chunk
+     * @param tileClock animation time for the level
      * @param iw width of chunk, in tile count
      * @param ih height of chunk, in tile count
      * @param x left edge of chunk in world co-ords
      * @param y top edge of chunk in world co-ords
      */
-    public LayerChunk(SpriteSheetManager spriteMgr, int iw, int ih, int x, int y) {
+    public LayerChunk(SpriteSheetManager spriteMgr, ChunkBitmapCache bitmapCache, TileClock tileClock, int iw, int ih, int x, int y) {
         sprites = spriteMgr;
+        bitmaps = bitmapCache;
+        clock = tileClock;
+        bakeTask = () -> bitmapCache.bake(this);
         tiles = new int[iw*ih];
         width = iw;
         height = ih;
         left = x;
         top = y;
-        key = x+":"+y;
-        dirty = true;
-        animated = false;
 
         paint = new Paint();
         paint.setBlendMode(BlendMode.SRC); // Don't blend
     }
 
-    /** Return a bitmap for this layer chunk.
+    /** Return a bitmap for this layer chunk, or null if it hasn't been baked yet.
      * This will be at a single pixel scale.
+     * The bitmap is held by the level's cache, and may be reused for another chunk once this one is off screen.
      */
     public Bitmap getBitmap() {
-        if (cache != null) return cache;
+        return bitmaps.get(this);
+    }
 
-        int tilePx = sprites.tiles.pixelSize;
-        int pixelWidth = width * tilePx;
-        int pixelHeight = height * tilePx;
+    /** Start baking the bitmap, if it isn't already, because the chunk is likely to be drawn soon */
+    public void prefetch() {
+        bitmaps.prefetch(this);
+    }
 
-        Bitmap.Config bitmapConfig = Bitmap.Config.ARGB_8888;
-        cache = Bitmap.createBitmap(pixelWidth, pixelHeight, bitmapConfig);
+    /** Width of the bitmap, in pixels */
+    int pixelWidth() {
+        return width * sprites.tiles.pixelSize;
+    }
 
-        redrawLayerChunk();
+    /** Height of the bitmap, in pixels */
+    int pixelHeight() {
+        return height * sprites.tiles.pixelSize;
+    }
 
-        return cache;
+    /** Current animation frame of the level's tiles */
+    int animationFrame() {
+        return clock.frame();
     }
 
-    private void redrawLayerChunk() {
-        int tilePx = sprites.tiles.pixelSize;
-        Canvas canvas = new Canvas(cache);
-        Rect dst = new Rect();
+    /** True if the chunk has animated tiles, and the animation has moved on since it was last baked */
+    boolean isStale() {
+        return animatedCount > 0 && bakedFrame != clock.frame();
+    }
+
+    /** Draw all of the chunk's tiles. Called on the cache's worker thread.
+     * @param canvas drawing into a cleared bitmap of `pixelWidth` by `pixelHeight`
+     * @param dst scratch rectangle
+     * @param frame animation frame to draw */
+    void drawAll(Canvas canvas, Rect dst, int frame) {
+        bakedFrame = frame;
 
-        // this overdraws the existing bitmap and relies on SRC blend mode
+        int tilePx = sprites.tiles.pixelSize;
         for (int iy = 0; iy < height; iy++){
             int span = iy * width;
             int py = iy * tilePx;
@@ -79,33 +105,44 @@ public class LayerChunk {
                 if (tileIdx < 0) continue;
 
                 int px = ix * tilePx;
-                Rect src = sprites.tiles.getTile(tileIdx, animationFrame);
+                Rect src = sprites.tiles.getTile(tileIdx, frame);
                 dst.set(px,py,px+ tilePx, py+ tilePx);
                 canvas.drawBitmap(sprites.tiles.bitmap, src, dst, paint);
             }
         }
     }
 
-    public void set(int idx, int tile) {
-        if (idx >= tiles.length) return;
-        if (tile >= TileSheet.ANIMATION_THRESHOLD) animated = true;
-        tiles[idx] = tile;
-    }
+    /** Draw only the animated tiles, over an earlier bake of this chunk. Called on the cache's worker thread.
+     * This overdraws the existing tiles and relies on SRC blend mode.
+     * @param canvas drawing into a bitmap of `pixelWidth` by `pixelHeight`
+     * @param dst scratch rectangle
+     * @param previous earlier bake to copy first, or null if the canvas' bitmap already is one
+     * @param frame animation frame to draw */
+    void drawAnimated(Canvas canvas, Rect dst, Bitmap previous, int frame) {
+        bakedFrame = frame;
+
+        if (previous != null) {
+            dst.set(0, 0, pixelWidth(), pixelHeight());
+            canvas.drawBitmap(previous, dst, dst, paint);
+        }
 
-    /** step time forward for animations */
-    public void advanceTime(int frameMs) {
-        animationTime += frameMs;
-        if (animationTime > 200){
-            animationFrame++;
-            animationTime -= 200;
-            dirty = animated; // only redraw if there are animations
+        int tilePx = sprites.tiles.pixelSize;
+        for (int i = 0; i < animatedCount; i++) {
+            int idx = animatedCells[i];
+            int px = (idx % width) * tilePx;
+            int py = (idx / width) * tilePx;
+            Rect src = sprites.tiles.getTile(tiles[idx], frame);
+            dst.set(px,py,px+ tilePx, py+ tilePx);
+            canvas.drawBitmap(sprites.tiles.bitmap, src, dst, paint);
         }
     }
 
-    /** redraw only if needed */
-    public void refreshIfDirty(){
-        if (cache == null || !dirty || !animated) return;
-
-        redrawLayerChunk();
+    public void set(int idx, int tile) {
+        if (idx >= tiles.length) return;
+        if (tile >= TileSheet.ANIMATION_THRESHOLD) {
+            if (animatedCount == animatedCells.length) animatedCells = Arrays.copyOf(animatedCells, Math.max(4, animatedCount * 2));
+            animatedCells[animatedCount++] = idx;
+        }
+        tiles[idx] = tile;
     }
 }
@@ -0,0 +1,25 @@
+package com.ieb.toad.world.loader;
+
+/** Animation clock for all the tiles in a level, so animated tiles stay in step.
+ * Advanced on the simulation thread; the frame can be read from any thread. */
+public class TileClock {
+    /** Time each animation frame is shown for */
+    public static final int FRAME_MS = 200;
+
+    private int time; // ms into the current frame
+    private volatile int frame;
+
+    /** step time forward for animations */
+    public void advance(int frameMs) {
+        time += frameMs;
+        while (time >= FRAME_MS) {
+            time -= FRAME_MS;
+            frame++;
+        }
+    }
+
+    /** Current animation frame. Counts up forever; tile sheets wrap it for each animation */
+    public int frame() {
+        return frame;
+    }
+}
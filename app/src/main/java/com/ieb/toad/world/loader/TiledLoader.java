@@ -14,6 +14,7 @@ import com.ieb.toad.sprite.Shy;
 import com.ieb.toad.sprite.Snifit;
 import com.ieb.toad.sprite.Toad;
 import com.ieb.toad.sprite.core.SpriteSheetManager;
+import com.ieb.toad.world.core.Aabb;
 import com.ieb.toad.world.core.Direction;
 import com.ieb.toad.world.core.Thing;
 import com.ieb.toad.world.platforms.DeathPlane;
@@ -33,9 +34,6 @@ import org.w3c.dom.NodeList;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
-import java.util.Dictionary;
-import java.util.Enumeration;
-import java.util.Hashtable;
 import java.util.List;
 
 import javax.xml.parsers.DocumentBuilder;
@@ -75,10 +73,16 @@ public class TiledLoader {
     public final List<Thing> bgThings; // used for collectables and grass
     public final List<DoorThing> doorThings; // used for doors and portals
     public final List<CameraZone> camZones; // camera pinning and similar effects
-    public final List<Rect> checkpoints; // checkpoint zones
+    public final List<Aabb> checkpoints; // checkpoint zones
     public Toad toad;
 
-    private final Dictionary<String, LayerChunk> backgroundChunks, mainChunks, foregroundChunks;
+    private final ChunkGrid backgroundChunks, mainChunks, foregroundChunks;
+
+    /** Bitmaps of the layer chunks, for all layers */
+    public final ChunkBitmapCache chunkBitmaps;
+
+    /** Animation time for the layer chunks */
+    public final TileClock tileClock;
 
     public TiledLoader(final Main context) throws IOException {
         assets = context.getAssets();
@@ -89,9 +93,11 @@ public class TiledLoader {
         camZones = new ArrayList<>(16);
         checkpoints = new ArrayList<>(32);
 
-        backgroundChunks = new Hashtable<>(64);
-        mainChunks = new Hashtable<>(64);
-        foregroundChunks = new Hashtable<>(64);
+        backgroundChunks = new ChunkGrid();
+        mainChunks = new ChunkGrid();
+        foregroundChunks = new ChunkGrid();
+        chunkBitmaps = new ChunkBitmapCache(ChunkBitmapCache.DEFAULT_BUDGET);
+        tileClock = new TileClock();
     }
 
     /** Try to load a TMX level by level index */
@@ -115,22 +121,19 @@ public class TiledLoader {
         }
     }
 
-    /** return chunks from the background layer that are at least partially visible on camera */
-    public Enumeration<LayerChunk> getBackgroundChunks(Rect coverage) {
-        // TODO: filter based on location
-        return backgroundChunks.elements();
+    /** Fill `out` with chunks from the background layer that are at least partially visible on camera */
+    public void getBackgroundChunks(Rect coverage, List<LayerChunk> out) {
+        backgroundChunks.find(coverage, out);
     }
 
-    /** return chunks from the main layer that are at least partially visible on camera */
-    public Enumeration<LayerChunk> getMainChunks(Rect coverage) {
-        // TODO: filter based on location
-        return mainChunks.elements();
+    /** Fill `out` with chunks from the main layer that are at least partially visible on camera */
+    public void getMainChunks(Rect coverage, List<LayerChunk> out) {
+        mainChunks.find(coverage, out);
     }
 
-    /** return chunks from the foreground layer that are at least partially visible on camera */
-    public Enumeration<LayerChunk> getForegroundChunks(Rect coverage) {
-        // TODO: filter based on location
-        return foregroundChunks.elements();
+    /** Fill `out` with chunks from the foreground layer that are at least partially visible on camera */
+    public void getForegroundChunks(Rect coverage, List<LayerChunk> out) {
+        foregroundChunks.find(coverage, out);
     }
 
     private Document parseXML(InputStream source) {
@@ -178,7 +181,7 @@ public class TiledLoader {
         }
     }
 
-    private void processTileLayer(Node group, Dictionary<String, LayerChunk> chunks) {
+    private void processTileLayer(Node group, ChunkGrid chunks) {
         Node dataNode = getFirstChild(group, "data");
 
         if (dataNode == null) return;
@@ -188,6 +191,7 @@ public class TiledLoader {
 
         NodeList nodes = dataNode.getChildNodes();
         int nodeCount = nodes.getLength();
+        int chunkTilesWide = 0, chunkTilesHigh = 0; // Tiled uses the same size for all chunks
         for (int i = 0; i < nodeCount; i++) {
             Node obj = nodes.item(i);
             String name = obj.getNodeName();
@@ -210,8 +214,10 @@ public class TiledLoader {
             int x = chunkWidth * SCALE * ix;
             int y = chunkHeight * SCALE * iy;
 
-            LayerChunk chunk = new LayerChunk(spriteMgr, iw, ih, x, y);
-            chunks.put(chunk.key, chunk);
+            LayerChunk chunk = new LayerChunk(spriteMgr, chunkBitmaps, tileClock, iw, ih, x, y);
+            chunks.add(chunk);
+            chunkTilesWide = iw;
+            chunkTilesHigh = ih;
 
             String[] csv = obj.getTextContent().split("[,\r\n]");
             int idx = 0;
@@ -222,9 +228,11 @@ public class TiledLoader {
                 idx++;
             }
         }
+
+        chunks.build(chunkWidth * SCALE * chunkTilesWide, chunkHeight * SCALE * chunkTilesHigh);
     }
 
-    private void processItemTileLayer(Node group, Dictionary<String, LayerChunk> chunks) {
+    private void processItemTileLayer(Node group, ChunkGrid chunks) {
         Node dataNode = getFirstChild(group, "data");
 
         if (dataNode == null) return;
@@ -419,7 +427,7 @@ public class TiledLoader {
             int w = SCALE * (int)getDoubleAttr(attrs, "width");
             int h = SCALE * (int)getDoubleAttr(attrs, "height");
 
-            checkpoints.add(new Rect(x,y,x+w,y+h));
+            checkpoints.add(new Aabb(x,y,x+w,y+h));
             thingIndex++;
         }
     }
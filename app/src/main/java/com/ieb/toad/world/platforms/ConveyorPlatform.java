@@ -1,19 +1,19 @@
 package com.ieb.toad.world.platforms;
 
-import android.graphics.Rect;
-
+import com.ieb.toad.world.core.Aabb;
 import com.ieb.toad.world.core.Collision;
+import com.ieb.toad.world.core.Simulator;
 import com.ieb.toad.world.core.Thing;
 
 public class ConveyorPlatform extends Thing {
 
     /** Hit box relative to the world */
-    public Rect hitBox;
+    public Aabb hitBox;
 
     private final double speed;
 
     public ConveyorPlatform(int left, int top, int width, int height, double speed) {
-        hitBox = new Rect(left, top, left+width, top+height);
+        hitBox = new Aabb(left, top, left+width, top+height);
         this.speed = speed;
         type = Collision.WALL;
         mass = 10;
@@ -21,6 +21,7 @@ public class ConveyorPlatform extends Thing {
         elasticity = 0.2;
         drag = 1.0; // no movement
         gravity = 0.0; // float in space
+        immovable = true; // kept in static geometry
     }
 
     @Override
@@ -39,7 +40,7 @@ public class ConveyorPlatform extends Thing {
         if (other.py > hitBox.top) { // normal impact from below
             vx = other.vx;
         } else { // moving impact from above
-            px -= speed;
+            px -= speed * Simulator.TUNED_STEPS; // shift is per step, so match the tuned step rate
             vx = speed;
         }
         return DO_IMPACT;
@@ -49,4 +50,13 @@ public class ConveyorPlatform extends Thing {
     public void postImpactTest() {
         radius = -1.0;
     }
+
+    @Override
+    public double bottom() {return hitBox.bottom;}
+    @Override
+    public double top() {return hitBox.top;}
+    @Override
+    public double right() {return hitBox.right;}
+    @Override
+    public double left() {return hitBox.left;}
 }
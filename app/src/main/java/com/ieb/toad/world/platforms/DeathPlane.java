@@ -1,23 +1,23 @@
 package com.ieb.toad.world.platforms;
 
-import android.graphics.Rect;
-
+import com.ieb.toad.world.core.Aabb;
 import com.ieb.toad.world.core.Collision;
 import com.ieb.toad.world.core.SimulationManager;
 import com.ieb.toad.world.core.Thing;
 
 public class DeathPlane extends Thing {
     /** Hit box relative to the world */
-    public Rect hitBox;
+    public Aabb hitBox;
 
     public DeathPlane(int left, int top, int width, int height) {
-        hitBox = new Rect(left, top, left+width, top+height);
+        hitBox = new Aabb(left, top, left+width, top+height);
         type = Collision.PASS_THROUGH;
         mass = 10;
         radius = -1; // only the target of collision
         elasticity = 0.2;
         drag = 1.0; // no movement
         gravity = 0.0; // float in space
+        immovable = true; // kept in static geometry
     }
 
     @Override
@@ -45,4 +45,13 @@ public class DeathPlane extends Thing {
         if (Collision.hasCreep(other.type)) level.removeThing(other);
         if (Collision.hasBullet(other.type)) level.removeThing(other);
     }
+
+    @Override
+    public double bottom() {return hitBox.bottom;}
+    @Override
+    public double top() {return hitBox.top;}
+    @Override
+    public double right() {return hitBox.right;}
+    @Override
+    public double left() {return hitBox.left;}
 }
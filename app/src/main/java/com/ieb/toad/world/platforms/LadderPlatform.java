@@ -1,26 +1,27 @@
 package com.ieb.toad.world.platforms;
 
-import android.graphics.Rect;
-
 import com.ieb.toad.sprite.Toad;
+import com.ieb.toad.world.core.Aabb;
 import com.ieb.toad.world.core.Collision;
 import com.ieb.toad.world.core.Thing;
 
 public class LadderPlatform extends Thing {
 
     /** Hit box relative to the world */
-    public Rect hitBox;
+    public Aabb hitBox;
     private final double halfWidth;
 
     public LadderPlatform(int left, int top, int width, int height) {
-        hitBox = new Rect(left, top, left+width, top+height);
+        hitBox = new Aabb(left, top, left+width, top+height);
         type = Collision.WALL | Collision.PASS_THROUGH;
+        collidesWith = Collision.PLAYER; // only the player climbs
         mass = 10;
         halfWidth = width / 2.0;
         radius = -1; // only the target of collision
         elasticity = 0.2;
         drag = 1.0; // no movement
         gravity = 0.0; // float in space
+        immovable = true; // kept in static geometry
     }
 
     @Override
@@ -58,4 +59,13 @@ public class LadderPlatform extends Thing {
         type = Collision.WALL | Collision.PASS_THROUGH;
         radius = -1.0;
     }
+
+    @Override
+    public double bottom() {return hitBox.bottom;}
+    @Override
+    public double top() {return hitBox.top;}
+    @Override
+    public double right() {return hitBox.right;}
+    @Override
+    public double left() {return hitBox.left;}
 }
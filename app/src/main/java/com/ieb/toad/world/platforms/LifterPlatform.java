@@ -1,19 +1,18 @@
 package com.ieb.toad.world.platforms;
 
-import android.graphics.Rect;
-
+import com.ieb.toad.world.core.Aabb;
 import com.ieb.toad.world.core.Collision;
 import com.ieb.toad.world.core.Thing;
 
 public class LifterPlatform extends Thing {
 
     /** Hit box relative to the world */
-    public Rect hitBox;
+    public Aabb hitBox;
 
     private final double speed;
 
     public LifterPlatform(int left, int top, int width, int height, double speed) {
-        hitBox = new Rect(left, top, left+width, top+height);
+        hitBox = new Aabb(left, top, left+width, top+height);
         this.speed = speed;
         type = Collision.WALL; // so creeps will walk through lifters
         mass = 100;
@@ -21,6 +20,7 @@ public class LifterPlatform extends Thing {
         elasticity = 0.1;
         drag = 1.0; // no movement
         gravity = 0.0; // float in space
+        immovable = true; // kept in static geometry
     }
 
     @Override
@@ -46,4 +46,13 @@ public class LifterPlatform extends Thing {
     public void postImpactTest() {
         radius = -1.0;
     }
+
+    @Override
+    public double bottom() {return hitBox.bottom;}
+    @Override
+    public double top() {return hitBox.top;}
+    @Override
+    public double right() {return hitBox.right;}
+    @Override
+    public double left() {return hitBox.left;}
 }
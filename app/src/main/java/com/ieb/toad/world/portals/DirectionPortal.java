@@ -1,14 +1,13 @@
 package com.ieb.toad.world.portals;
 
-import android.graphics.Rect;
-
+import com.ieb.toad.world.core.Aabb;
 import com.ieb.toad.world.core.Collision;
 import com.ieb.toad.world.core.Direction;
 import com.ieb.toad.world.core.SimulationManager;
 import com.ieb.toad.world.core.Thing;
 
 public class DirectionPortal extends DoorThing {
-    private final Rect hitBox;
+    private final Aabb hitBox;
     private final int triggerDirections;
 
     private boolean triggered, onHold;
@@ -17,9 +16,11 @@ public class DirectionPortal extends DoorThing {
         super(target, objId);
 
         triggerDirections = direction;
-        hitBox = new Rect(left, top, left+width, top+height);
+        hitBox = new Aabb(left, top, left+width, top+height);
 
         type = Collision.DOOR + Collision.PASS_THROUGH;
+        thinks = true;
+        collidesWith = Collision.PLAYER; // only the player uses portals
         radius = 10;
         px = hitBox.centerX();
         py = hitBox.centerY();
@@ -72,4 +73,13 @@ public class DirectionPortal extends DoorThing {
 
         return DO_IMPACT;
     }
-}
\ No newline at end of file
+
+    @Override
+    public double bottom() {return hitBox.bottom;}
+    @Override
+    public double top() {return hitBox.top;}
+    @Override
+    public double right() {return hitBox.right;}
+    @Override
+    public double left() {return hitBox.left;}
+}
@@ -1,11 +1,11 @@
 package com.ieb.toad.world.portals;
 
-import android.graphics.Rect;
-
 import com.ieb.toad.sprite.Key;
 import com.ieb.toad.sprite.core.Animation;
 import com.ieb.toad.sprite.core.SpriteSheetManager;
-import com.ieb.toad.world.core.Camera;
+import com.ieb.toad.world.Camera;
+import com.ieb.toad.world.Drawable;
+import com.ieb.toad.world.core.Aabb;
 import com.ieb.toad.world.core.Collision;
 import com.ieb.toad.world.core.SimulationManager;
 import com.ieb.toad.world.core.Thing;
@@ -17,9 +17,9 @@ import org.jetbrains.annotations.NotNull;
  * When the player presses "up" while touching one, they
  * swap between doors with the same target name, by ID.
  */
-public class DoorBox extends DoorThing {
+public class DoorBox extends DoorThing implements Drawable {
     private final Animation anim;
-    private final Rect hitBox;
+    private final Aabb hitBox;
 
     private boolean locked;
     private boolean triggered;
@@ -30,10 +30,12 @@ public class DoorBox extends DoorThing {
         anim = new Animation(1000, Animation.FOREVER, sprites.tiles, new int[]{266});
 
         this.locked = locked;
-        hitBox = new Rect(left, top, left+width, top+height);
+        hitBox = new Aabb(left, top, left+width, top+height);
 
         layer = -2; // so the lock is behind Toad
         type = Collision.DOOR + Collision.PASS_THROUGH;
+        thinks = true;
+        collidesWith = Collision.PLAYER; // only the player uses doors
         radius = width / 2.0;
         px = hitBox.centerX();
         py = hitBox.centerY();
@@ -75,10 +77,4 @@ public class DoorBox extends DoorThing {
         t.vx = 0;
         t.vy = 0;
     }
-
-    @Override
-    public boolean preImpactTest(Thing other) {
-        if (other.type != Collision.PLAYER) return SKIP_IMPACT;
-        return DO_IMPACT;
-    }
 }
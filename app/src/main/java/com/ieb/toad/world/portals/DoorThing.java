@@ -15,6 +15,7 @@ public abstract class DoorThing extends Thing {
         type = Collision.DOOR;
         mass = 1.0;
         gravity = 0.0;
+        immovable = true; // doors never move
     }
 
     /** Indicates that player has just arrived at the door.
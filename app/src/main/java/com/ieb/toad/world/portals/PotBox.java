@@ -1,8 +1,7 @@
 package com.ieb.toad.world.portals;
 
-import android.graphics.Rect;
-
 import com.ieb.toad.input.VirtualGamepad;
+import com.ieb.toad.world.core.Aabb;
 import com.ieb.toad.world.core.Collision;
 import com.ieb.toad.world.core.SimulationManager;
 import com.ieb.toad.world.core.Thing;
@@ -13,15 +12,16 @@ import com.ieb.toad.world.core.Thing;
  * as a door to the next portal.
  */
 public class PotBox extends DoorThing {
-    private final Rect hitBox;
+    private final Aabb hitBox;
 
     private boolean triggered, onHold;
 
     public PotBox(int left, int top, int width, int height, String target, int objId) {
         super(target, objId);
-        hitBox = new Rect(left, top, left+width, top+height);
+        hitBox = new Aabb(left, top, left+width, top+height);
 
         type = Collision.DOOR + Collision.WALL;
+        thinks = true;
         mass = 10;
         radius = -1; // only the target of collision
         elasticity = 0.2;
@@ -30,6 +30,7 @@ public class PotBox extends DoorThing {
 
         triggered = false;
         onHold = false;
+        proximityEvents = true; // watch for 'down' being released while near
     }
 
     public int think(SimulationManager level, int ms) {
@@ -92,4 +93,13 @@ public class PotBox extends DoorThing {
         if (other.type != Collision.PLAYER) return;
         if (other.py < hitBox.top && VirtualGamepad.isDown()) triggered = true; // handled in `think()`
     }
+
+    @Override
+    public double bottom() {return hitBox.bottom;}
+    @Override
+    public double top() {return hitBox.top;}
+    @Override
+    public double right() {return hitBox.right;}
+    @Override
+    public double left() {return hitBox.left;}
 }
@@ -0,0 +1,383 @@
+package com.ieb.toad.bench;
+
+import com.ieb.toad.world.core.Aabb;
+import com.ieb.toad.world.core.CastHit;
+import com.ieb.toad.world.core.Collision;
+import com.ieb.toad.world.core.Constraint;
+import com.ieb.toad.world.core.ConstraintList;
+import com.ieb.toad.world.core.ContactCache;
+import com.ieb.toad.world.core.SimulationManager;
+import com.ieb.toad.world.core.Simulator;
+import com.ieb.toad.world.core.StaticGeometry;
+import com.ieb.toad.world.core.Thing;
+import com.ieb.toad.world.core.ThingSlots;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A synthetic level for benchmarks: a walled arena with rows of shelves, and bodies placed in it.
+ * Does the same job as the app's `Level`, without loading, drawing, doors or a player.
+ * The scene is made from a seed, so runs with the same parameters simulate the same thing.
+ */
+public class BenchWorld implements SimulationManager {
+    /** Kinds of body to fill the arena with */
+    public enum Mix {
+        /** 40% creeps, 20% bullets, 40% collectables */
+        MIXED,
+        /** Walking creeps only. These never sleep */
+        CREEPS,
+        /** Bullets only. These bounce around the arena forever */
+        BULLETS,
+        /** Collectables only. These float still, so are asleep after the first half second */
+        PICKUPS
+    }
+
+    /** How bodies are spread over the arena */
+    public enum Layout {
+        /** Evenly spread, about one body per 256px square */
+        SPARSE,
+        /** Piled up in clusters of about 200 bodies */
+        CLUSTERED
+    }
+
+    /** Arena edge, and shelf spacing, in pixels */
+    private static final int WALL = 64, SHELF_ROWS = 320, SHELF_WIDTH = 256, SHELF_GAP = 128, SHELF_HEIGHT = 16;
+
+    /** Bodies in each cluster for `Layout.CLUSTERED` */
+    private static final int CLUSTER_SIZE = 200;
+
+    /** Width of the simulated 'screen', in the middle of the arena. Things outside it think less often */
+    private static final int SCREEN_WIDTH = 1920, SCREEN_HEIGHT = 1080;
+
+    public final Simulator simulator;
+    public final ThingSlots bodies = new ThingSlots();
+    public final StaticGeometry statics = new StaticGeometry();
+    public final ConstraintList constraints = new ConstraintList();
+
+    /** Arena floor. Constraint benchmarks stand things on it */
+    public final Wall floor;
+
+    private final List<Thing> walls = new ArrayList<>();
+    private final Probe probe = new Probe();
+    private final Aabb screen;
+    private boolean built;
+
+    /** Empty arena of the given size, with a floor, ceiling and side walls, and optionally rows of shelves */
+    public BenchWorld(int width, int height, boolean shelves) {
+        simulator = new Simulator(this);
+
+        floor = new Wall(0, height - WALL, width, WALL);
+        walls.add(floor);
+        walls.add(new Wall(0, 0, width, WALL));
+        walls.add(new Wall(0, 0, WALL, height));
+        walls.add(new Wall(width - WALL, 0, WALL, height));
+
+        if (shelves) {
+            int row = 0;
+            for (int y = SHELF_ROWS; y < height - SHELF_ROWS / 2; y += SHELF_ROWS) {
+                int offset = (row++ % 2) * (SHELF_WIDTH + SHELF_GAP) / 2; // stagger rows, so things fall onto the next
+                for (int x = WALL + offset; x + SHELF_WIDTH < width - WALL; x += SHELF_WIDTH + SHELF_GAP) {
+                    walls.add(new Wall(x, y, SHELF_WIDTH, SHELF_HEIGHT));
+                }
+            }
+        }
+
+        int cx = width / 2, cy = height / 2;
+        screen = new Aabb(cx - SCREEN_WIDTH / 2, cy - SCREEN_HEIGHT / 2, cx + SCREEN_WIDTH / 2, cy + SCREEN_HEIGHT / 2);
+    }
+
+    /** Arena with `count` bodies of the given mix and layout */
+    public static BenchWorld scene(int count, Mix mix, Layout layout, long seed) {
+        int side = Math.max(1024, (int) (Math.sqrt(count) * 256));
+        BenchWorld world = new BenchWorld(side, side, true);
+        Random random = new Random(seed);
+
+        double clusterX = 0, clusterY = 0, spread = 0;
+        for (int i = 0; i < count; i++) {
+            double x, y;
+            if (layout == Layout.SPARSE) {
+                x = WALL + 32 + random.nextDouble() * (side - 2 * WALL - 64);
+                y = WALL + 32 + random.nextDouble() * (side - 2 * WALL - 64);
+            } else {
+                if (i % CLUSTER_SIZE == 0) {
+                    clusterX = side * (0.1 + 0.8 * random.nextDouble());
+                    clusterY = side * (0.1 + 0.8 * random.nextDouble());
+                    spread = 8.0 * Math.sqrt(Math.min(CLUSTER_SIZE, count - i));
+                }
+                x = clamp(clusterX + random.nextGaussian() * spread, WALL + 32, side - WALL - 32);
+                y = clamp(clusterY + random.nextGaussian() * spread, WALL + 32, side - WALL - 32);
+            }
+            world.add(body(mix, random, x, y));
+        }
+        return world;
+    }
+
+    private static Thing body(Mix mix, Random random, double x, double y) {
+        switch (mix) {
+            case CREEPS: return new Walker(x, y, random.nextBoolean() ? 1 : -1);
+            case BULLETS: return new Shot(x, y, random);
+            case PICKUPS: return new Pickup(x, y);
+            default:
+                double pick = random.nextDouble();
+                if (pick < 0.4) return new Walker(x, y, random.nextBoolean() ? 1 : -1);
+                if (pick < 0.6) return new Shot(x, y, random);
+                return new Pickup(x, y);
+        }
+    }
+
+    /** Add a body before the first step. Use `addThing` once the world is running */
+    public void add(Thing t) {
+        if (t.immovable) walls.add(t);
+        else bodies.add(t);
+    }
+
+    /** Run for a number of 60fps frames, so bodies settle and the broad-phase and schedule are warm */
+    public void settle(int frames) {
+        for (int i = 0; i < frames; i++) frame();
+    }
+
+    /** Run one simulator step. Time is carried between calls, so this is exactly one step on average */
+    public double step() {
+        build();
+        return simulator.solve(Simulator.STEP_MS, bodies, statics, constraints);
+    }
+
+    /** Run one 60fps frame, about two simulator steps */
+    public double frame() {
+        build();
+        return simulator.solve(1000.0 / 60.0, bodies, statics, constraints);
+    }
+
+    private void build() {
+        if (built) return;
+        statics.build(walls);
+        built = true;
+    }
+
+    private static double clamp(double v, double min, double max) {
+        return Math.min(Math.max(v, min), max);
+    }
+
+    @Override
+    public int hitTest(double x, double y) {
+        probe.px = x;
+        probe.py = y;
+        return simulator.hitTest(probe);
+    }
+
+    @Override
+    public void hitTest(double[] xs, double[] ys, int count, int[] results) {
+        simulator.hitTest(probe, xs, ys, count, results);
+    }
+
+    @Override
+    public int thingsInArea(double left, double top, double right, double bottom, Thing[] out) {
+        return simulator.queryArea(left, top, right, bottom, out);
+    }
+
+    @Override
+    public int thingsNear(double x, double y, double distance, Thing[] out) {
+        return simulator.queryRadius(x, y, distance, out);
+    }
+
+    @Override
+    public boolean raycast(double x0, double y0, double x1, double y1, int mask, CastHit hit) {
+        return simulator.raycast(x0, y0, x1, y1, mask, hit);
+    }
+
+    @Override
+    public boolean circleCast(double x0, double y0, double x1, double y1, double radius, int mask, CastHit hit) {
+        return simulator.circleCast(x0, y0, x1, y1, radius, mask, hit);
+    }
+
+    @Override
+    public ContactCache contacts() {
+        return simulator.contacts();
+    }
+
+    @Override
+    public void addConstraint(Constraint c) {
+        constraints.add(c);
+    }
+
+    @Override
+    public void removeConstraint(Constraint c) {
+        if (!constraints.remove(c)) return;
+        c.unlink();
+        c.recycle();
+    }
+
+    @Override
+    public void removeThing(Thing t) {
+        boolean removed = t.immovable ? statics.remove(t) : bodies.remove(t);
+        if (!removed) return;
+
+        for (int i = t.linkedConstraintCount() - 1; i >= 0; i--) {
+            removeConstraint(t.linkedConstraint(i));
+        }
+        simulator.thingRemoved(t);
+        t.despawned(this);
+    }
+
+    @Override
+    public Thing findThing(long handle) {
+        return bodies.find(handle);
+    }
+
+    @Override
+    public void moveNextDoor(String target, int srcObjId) {
+    }
+
+    @Override
+    public void damagePlayer() {
+    }
+
+    @Override
+    public void addThing(Thing thing) {
+        if (thing.immovable) statics.add(thing);
+        else bodies.add(thing);
+        simulator.objectsChanged();
+    }
+
+    @Override
+    public boolean isOnScreen(Thing thing) {
+        return screenDistance(thing) <= 0.0;
+    }
+
+    @Override
+    public double screenDistance(Thing thing) {
+        double dx = Math.max(screen.left - thing.right(), thing.left() - screen.right);
+        double dy = Math.max(screen.top - thing.bottom(), thing.top() - screen.bottom);
+        return Math.max(0.0, Math.max(dx, dy));
+    }
+
+    /** Immovable box. Works like the app's `SolidPlatform` */
+    public static class Wall extends Thing {
+        public final Aabb hitBox;
+
+        public Wall(int left, int top, int width, int height) {
+            hitBox = new Aabb(left, top, left + width, top + height);
+            type = Collision.WALL;
+            mass = 10;
+            radius = -1;
+            elasticity = 0.2;
+            drag = 1.0;
+            gravity = 0.0;
+            immovable = true;
+        }
+
+        @Override
+        public boolean preImpactTest(Thing other) {
+            if (other.type == Collision.WALL) return SKIP_IMPACT;
+
+            radius = 1.0;
+            px = clamp(other.px, hitBox.left + 1, hitBox.right - 1);
+            py = clamp(other.py, hitBox.top + 1, hitBox.bottom - 1);
+            mass = other.mass;
+            elasticity = other.elasticity;
+
+            double ot = other.py - other.radius;
+            double ob = other.py + other.radius;
+            double ol = other.px - other.radius;
+            double or = other.px + other.radius;
+            vx = (ot > hitBox.bottom || ob < hitBox.top) ? other.vx : -other.vx;
+            vy = (ol > hitBox.right || or < hitBox.left) ? other.vy : -other.vy;
+            return DO_IMPACT;
+        }
+
+        @Override
+        public void postImpactTest() {
+            radius = -1.0;
+        }
+
+        @Override
+        public double bottom() {return hitBox.bottom;}
+        @Override
+        public double top() {return hitBox.top;}
+        @Override
+        public double right() {return hitBox.right;}
+        @Override
+        public double left() {return hitBox.left;}
+    }
+
+    /** Creep that walks back and forth, turning at walls and other creeps. Like the app's `WalkingCreep` */
+    public static class Walker extends Thing {
+        private static final double SPEED = 120, ACCEL = 500;
+        private int direction;
+
+        public Walker(double x, double y, int direction) {
+            px = x;
+            py = y;
+            this.direction = direction;
+            type = Collision.CREEP;
+            thinks = true;
+            radius = 20;
+            mass = 0.8;
+            elasticity = 0.5;
+        }
+
+        @Override
+        public int think(SimulationManager level, int ms) {
+            ax = 0;
+            int front = level.hitTest(px + (radius + 4) * direction, py);
+            if (Collision.hasWall(front) || Collision.hasCreep(front)) direction = -direction;
+
+            if (direction < 0) {
+                if (vx > -SPEED) ax = -ACCEL;
+            } else {
+                if (vx < SPEED) ax = ACCEL;
+            }
+            return KEEP;
+        }
+    }
+
+    /** Bullet with no gravity or drag, so it bounces around the arena forever */
+    public static class Shot extends Thing {
+        public Shot(double x, double y, Random random) {
+            px = x;
+            py = y;
+            vx = (random.nextBoolean() ? 1 : -1) * (400 + random.nextDouble() * 400);
+            vy = (random.nextDouble() - 0.5) * 600;
+            type = Collision.BULLET;
+            collidesWith = Collision.WALL | Collision.CREEP | Collision.PLAYER;
+            radius = 4.0;
+            mass = 0.8;
+            elasticity = 1.0;
+            drag = 0.0;
+            gravity = 0.0;
+        }
+    }
+
+    /** Floating collectable, that only interacts with the player. Like the app's `Coin` */
+    public static class Pickup extends Thing {
+        private int time;
+
+        public Pickup(double x, double y) {
+            px = x;
+            py = y;
+            type = Collision.PASS_THROUGH;
+            collidesWith = Collision.PLAYER;
+            thinks = true;
+            radius = 16.0;
+            mass = 0.8;
+            gravity = 0.0;
+        }
+
+        @Override
+        public int think(SimulationManager level, int ms) {
+            time += ms; // stands in for animation
+            return KEEP;
+        }
+    }
+
+    /** Point used for `hitTest`. Like the app's `PointThing` */
+    private static class Probe extends Thing {
+        Probe() {
+            type = Collision.SENSOR;
+            radius = 1;
+            gravity = 0.0;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.ieb.toad.bench;
+
+import com.ieb.toad.world.constraints.CarryingObject;
+import com.ieb.toad.world.constraints.StandingOnGround;
+import com.ieb.toad.world.core.Collision;
+import com.ieb.toad.world.core.Constraint;
+import com.ieb.toad.world.core.Simulator;
+import com.ieb.toad.world.core.Thing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time for constraint `apply`, per constraint.
+ * Things stand on the arena floor for a few frames, so their ground contacts are in the contact cache,
+ * then the world is stopped and the constraints are applied over and over.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(ConstraintBench.COUNT)
+public class ConstraintBench {
+    static final int COUNT = 256;
+
+    /** Frames to run before measuring. Less than `Simulator.SLEEP_TIME`, so contacts are still fresh */
+    private static final int SETTLE_FRAMES = 20;
+
+    private static class Body extends Thing {
+        Body(double x, double y) {
+            px = x;
+            py = y;
+            type = Collision.CREEP;
+            radius = 16;
+            mass = 0.8;
+            elasticity = 0.1;
+        }
+    }
+
+    private final Constraint[] standing = new Constraint[COUNT];
+    private final Constraint[] carrying = new Constraint[COUNT];
+
+    @Setup(Level.Trial)
+    public void setup() {
+        int width = COUNT * 64 + 256, height = 512;
+        BenchWorld world = new BenchWorld(width, height, false);
+
+        Body[] standers = new Body[COUNT];
+        double floorTop = world.floor.top();
+        for (int i = 0; i < COUNT; i++) {
+            Body top = new Body(128 + i * 64, floorTop - 16);
+            top.trackContacts = true;
+            standers[i] = top;
+            world.add(top);
+        }
+        world.settle(SETTLE_FRAMES);
+
+        for (int i = 0; i < COUNT; i++) {
+            standing[i] = StandingOnGround.obtain(standers[i], world.floor, world.contacts());
+            if (standing[i].apply(Simulator.STEP_MS) != Constraint.OK) {
+                throw new IllegalStateException("thing " + i + " is not on the floor");
+            }
+
+            // held things are not in the world, as only the constraint is measured
+            carrying[i] = CarryingObject.obtain(new Body(0, 0), standers[i], 40, 250);
+        }
+    }
+
+    @Benchmark
+    public int standingOnGround() {
+        int broken = 0;
+        for (int i = 0; i < COUNT; i++) broken += standing[i].apply(Simulator.STEP_MS);
+        return broken;
+    }
+
+    @Benchmark
+    public int carryingObject() {
+        int broken = 0;
+        for (int i = 0; i < COUNT; i++) broken += carrying[i].apply(Simulator.STEP_MS);
+        return broken;
+    }
+}
@@ -0,0 +1,56 @@
+package com.ieb.toad.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time for `Simulator.solve` with impact tests on the simulator thread, and split into islands on worker threads.
+ * Both modes give the same results, so this only compares time. Scenes with fewer than
+ * `Simulator.PARALLEL_MIN_PAIRS` candidate pairs in a step run on one thread either way.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ParallelCollisionBench {
+    /** 60fps frames to run before measuring, so the broad-phase, pools and worker threads are warm */
+    private static final int SETTLE_FRAMES = 120;
+
+    @Param({"1000", "10000"})
+    public int bodies;
+
+    @Param({"SPARSE", "CLUSTERED"})
+    public BenchWorld.Layout layout;
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    private BenchWorld world;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        world = BenchWorld.scene(bodies, BenchWorld.Mix.MIXED, layout, 42);
+        world.simulator.parallelCollisions = parallel;
+        world.settle(SETTLE_FRAMES);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        world.simulator.shutdown();
+    }
+
+    /** One simulator step per call */
+    @Benchmark
+    public double step() {
+        return world.step();
+    }
+}
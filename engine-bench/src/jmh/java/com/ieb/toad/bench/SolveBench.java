@@ -0,0 +1,55 @@
+package com.ieb.toad.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time for `Simulator.solve` over synthetic scenes, from 10 to 10,000 bodies.
+ * Run with the GC profiler (the Gradle default) to get allocations: `gc.alloc.rate.norm` is bytes per step
+ * for `step`, and bytes per frame for `frame`. Both should be zero once the scene has settled.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SolveBench {
+    /** 60fps frames to run before measuring, so the broad-phase, pools and think schedule are warm */
+    private static final int SETTLE_FRAMES = 120;
+
+    @Param({"10", "100", "1000", "10000"})
+    public int bodies;
+
+    @Param({"MIXED", "CREEPS", "BULLETS", "PICKUPS"})
+    public BenchWorld.Mix mix;
+
+    @Param({"SPARSE", "CLUSTERED"})
+    public BenchWorld.Layout layout;
+
+    private BenchWorld world;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        world = BenchWorld.scene(bodies, mix, layout, 42);
+        world.settle(SETTLE_FRAMES);
+    }
+
+    /** One simulator step per call */
+    @Benchmark
+    public double step() {
+        return world.step();
+    }
+
+    /** One 60fps frame per call, as the game runs it */
+    @Benchmark
+    public double frame() {
+        return world.frame();
+    }
+}
@@ -0,0 +1,87 @@
+package com.ieb.toad.world.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time for the simulator's integrator phases, over a whole list of moving things per call.
+ * In this package so it can reach the package-private integrator methods.
+ * <p>
+ * Things are put back to their starting motion before each iteration. Drag is zero, as velocities
+ * slowed by drag over millions of calls end up as denormal numbers, which are much slower to work with.
+ * The drag multiply is still done. Gravity and walking take some things to terminal velocity, so the clamp runs too.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class IntegratorBench {
+    @Param({"1000", "10000"})
+    public int bodies;
+
+    private static class Body extends Thing {
+    }
+
+    private final Simulator simulator = new Simulator(null); // integrator doesn't use the level
+    private final List<Thing> things = new ArrayList<>();
+
+    // Starting motion of each thing, as x, y, vx, vy
+    private double[] start;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        start = new double[bodies * 4];
+        for (int i = 0; i < bodies; i++) {
+            Body t = new Body();
+            t.radius = 16;
+            t.drag = 0.0;
+            t.gravity = random.nextInt(4) == 0 ? 0.0 : 1.0; // some floating things, like bullets
+            t.ax = random.nextInt(4) == 0 ? random.nextDouble() * 400 - 200 : 0.0; // some walking
+            things.add(t);
+
+            int s = i * 4;
+            start[s] = random.nextDouble() * 6000;
+            start[s + 1] = random.nextDouble() * 6000;
+            start[s + 2] = random.nextDouble() * 600 - 300;
+            start[s + 3] = random.nextDouble() * 600 - 300;
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        for (int i = 0; i < bodies; i++) {
+            int s = i * 4;
+            Thing t = things.get(i);
+            t.px = start[s];
+            t.py = start[s + 1];
+            t.vx = start[s + 2];
+            t.vy = start[s + 3];
+        }
+    }
+
+    /** Positions and drag, for every thing */
+    @Benchmark
+    public double advancePositions() {
+        simulator.advancePositions(things);
+        return things.get(0).px;
+    }
+
+    /** Velocities and terminal velocity clamp, for every thing */
+    @Benchmark
+    public double advanceVelocities() {
+        simulator.advanceVelocities(things);
+        return things.get(0).vy;
+    }
+}
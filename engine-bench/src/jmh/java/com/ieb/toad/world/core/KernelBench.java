@@ -0,0 +1,122 @@
+package com.ieb.toad.world.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time for the simulator's pair kernels, per pair.
+ * In this package so it can reach the package-private kernels.
+ * <p>
+ * `pushApart` and `resolveCollision` move the things they are given, so each pair is put back to its
+ * starting state before the call. `resetOnly` measures just that, to subtract from their results.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(KernelBench.PAIRS)
+public class KernelBench {
+    static final int PAIRS = 1024;
+
+    private static class Body extends Thing {
+    }
+
+    private final Simulator simulator = new Simulator(null); // kernels don't use the level
+    private final Thing[] a = new Thing[PAIRS], b = new Thing[PAIRS];
+
+    // Starting state of each pair: a then b, as x, y, vx, vy
+    private final double[] start = new double[PAIRS * 8];
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        for (int i = 0; i < PAIRS; i++) {
+            a[i] = body(random.nextDouble() * 10 + 15);
+            b[i] = body(random.nextDouble() * 10 + 15);
+
+            // Centres 30..50 apart, so about half the pairs overlap, closing at up to 1000px/s
+            double angle = random.nextDouble() * Math.PI * 2;
+            double d = 30 + random.nextDouble() * 20;
+            double speed = random.nextDouble() * 1000;
+            int s = i * 8;
+            start[s] = 0;
+            start[s + 1] = 0;
+            start[s + 2] = Math.cos(angle) * speed / 2;
+            start[s + 3] = Math.sin(angle) * speed / 2;
+            start[s + 4] = Math.cos(angle) * d;
+            start[s + 5] = Math.sin(angle) * d;
+            start[s + 6] = -start[s + 2];
+            start[s + 7] = -start[s + 3];
+        }
+        for (int i = 0; i < PAIRS; i++) reset(i);
+    }
+
+    private static Thing body(double radius) {
+        Body t = new Body();
+        t.radius = radius;
+        t.mass = 0.8;
+        t.elasticity = 0.5;
+        return t;
+    }
+
+    private void reset(int i) {
+        int s = i * 8;
+        Thing ta = a[i], tb = b[i];
+        ta.px = start[s];
+        ta.py = start[s + 1];
+        ta.vx = start[s + 2];
+        ta.vy = start[s + 3];
+        tb.px = start[s + 4];
+        tb.py = start[s + 5];
+        tb.vx = start[s + 6];
+        tb.vy = start[s + 7];
+    }
+
+    @Benchmark
+    public double impactFraction() {
+        double sum = 0;
+        for (int i = 0; i < PAIRS; i++) sum += simulator.impactFraction(a[i], b[i]);
+        return sum;
+    }
+
+    @Benchmark
+    public double pushApart() {
+        double sum = 0;
+        for (int i = 0; i < PAIRS; i++) {
+            reset(i);
+            simulator.pushApart(a[i], b[i]);
+            sum += a[i].px;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double resolveCollision() {
+        double sum = 0;
+        for (int i = 0; i < PAIRS; i++) {
+            reset(i);
+            simulator.resolveCollision(a[i], b[i], 0);
+            sum += a[i].vx;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double resetOnly() {
+        double sum = 0;
+        for (int i = 0; i < PAIRS; i++) {
+            reset(i);
+            sum += a[i].px;
+        }
+        return sum;
+    }
+}
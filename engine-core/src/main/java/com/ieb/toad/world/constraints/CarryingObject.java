@@ -0,0 +1,65 @@
+package com.ieb.toad.world.constraints;
+
+import com.ieb.toad.world.core.Constraint;
+import com.ieb.toad.world.core.Pool;
+import com.ieb.toad.world.core.Thing;
+
+/** Try to keep one thing on top of another.
+ * Used for player carrying an object */
+public class CarryingObject extends Constraint {
+    private static final Pool<CarryingObject> pool = new Pool<>("CarryingObject", 4, CarryingObject::new, CarryingObject::clear);
+
+    public Thing carried;
+    public Thing holder;
+    private double targetHeight;
+    private double time;
+    private double nowHeight;
+
+    private CarryingObject() {
+        super(CARRYING_OBJECT);
+    }
+
+    /** Try to keep one thing on top of another.
+     * Used for player standing on a moving object.
+     * Taken from a pool, and returned when removed from the level */
+    public static CarryingObject obtain(Thing carried, Thing holder, double height, double time){
+        CarryingObject c = pool.obtain();
+        c.carried = carried;
+        c.holder = holder;
+        c.targetHeight = height;
+        c.time = time;
+        c.nowHeight = 0.0;
+
+        carried.linkConstraint(c);
+        holder.linkConstraint(c);
+        return c;
+    }
+
+    @Override
+    public int apply(double timeMs) {
+        if (nowHeight < targetHeight){
+            nowHeight += targetHeight * (timeMs / time);
+        } else nowHeight = targetHeight;
+
+        carried.px = holder.px;
+        carried.py = holder.py - nowHeight;
+
+        return OK;
+    }
+
+    @Override
+    public void unlink() {
+        carried.unlinkConstraint(this);
+        holder.unlinkConstraint(this);
+    }
+
+    @Override
+    public void recycle() {
+        pool.release(this);
+    }
+
+    private static void clear(CarryingObject c) {
+        c.carried = null;
+        c.holder = null;
+    }
+}
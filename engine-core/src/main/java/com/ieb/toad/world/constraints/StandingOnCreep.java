@@ -0,0 +1,67 @@
+package com.ieb.toad.world.constraints;
+
+import com.ieb.toad.world.core.Constraint;
+import com.ieb.toad.world.core.Pool;
+import com.ieb.toad.world.core.Thing;
+
+/** Try to keep one thing on top of another.
+ * Used for player standing on a moving object */
+public class StandingOnCreep extends Constraint {
+    private static final Pool<StandingOnCreep> pool = new Pool<>("StandingOnCreep", 4, StandingOnCreep::new, StandingOnCreep::clear);
+
+    public Thing top;
+    public Thing bottom;
+    private double diffHeight;
+    private double diffWidth;
+
+    private StandingOnCreep() {
+        super(STANDING_ON_CREEP);
+    }
+
+    /** Try to keep one thing on top of another.
+     * Used for player standing on a moving object.
+     * Taken from a pool, and returned when removed from the level */
+    public static StandingOnCreep obtain(Thing top, Thing bottom){
+        StandingOnCreep c = pool.obtain();
+        c.top = top;
+        c.bottom = bottom;
+
+        c.diffHeight = top.radius + bottom.radius + 8;
+        c.diffWidth = top.radius + bottom.radius - 4;
+
+        top.linkConstraint(c);
+        bottom.linkConstraint(c);
+        return c;
+    }
+
+    @Override
+    public int apply(double timeMs) {
+        double dx = bottom.px - top.px;
+        double dy = bottom.py - top.py;
+
+        if (dx > diffWidth || dx < -diffWidth) return BROKEN;
+        if (dy < -1.5 || dy > diffHeight) return BROKEN;
+
+        // one-way spring, only affects 'top'
+        top.ax = Math.min(Math.max(dx * dx * dx * dx * dx, -700), 700);
+        top.ay = Math.min(Math.max(dy * dy * dy * dy * dy, -700), 700);
+
+        return OK;
+    }
+
+    @Override
+    public void unlink() {
+        top.unlinkConstraint(this);
+        bottom.unlinkConstraint(this);
+    }
+
+    @Override
+    public void recycle() {
+        pool.release(this);
+    }
+
+    private static void clear(StandingOnCreep c) {
+        c.top = null;
+        c.bottom = null;
+    }
+}
@@ -0,0 +1,78 @@
+package com.ieb.toad.world.constraints;
+
+import com.ieb.toad.world.core.Constraint;
+import com.ieb.toad.world.core.Contact;
+import com.ieb.toad.world.core.ContactCache;
+import com.ieb.toad.world.core.Pool;
+import com.ieb.toad.world.core.Thing;
+
+public class StandingOnGround extends Constraint {
+    private static final Pool<StandingOnGround> pool = new Pool<>("StandingOnGround", 4, StandingOnGround::new, StandingOnGround::clear);
+
+    private Thing top;
+    private ContactCache contacts;
+    private Thing ground;
+    private double diffHeight;
+
+    private StandingOnGround() {
+        super(STANDING_ON_GROUND);
+    }
+
+    /** Try to keep one thing on top of another.
+     * Used for player standing on a moving object.
+     * `top` must have `trackContacts` set, so its contact with the ground is in `contacts`.
+     * Taken from a pool, and returned when removed from the level */
+    public static StandingOnGround obtain(Thing top, Thing ground, ContactCache contacts){
+        StandingOnGround c = pool.obtain();
+        c.top = top;
+        c.ground = ground;
+        c.contacts = contacts;
+
+        c.diffHeight = top.radius + 2;
+
+        top.linkConstraint(c);
+        return c;
+    }
+
+    /** Move to a different ground thing, if it is more directly under us than the current one.
+     * This keeps the link as we cross a seam between platforms */
+    public void offer(Thing other) {
+        if (other == ground) return;
+        Contact next = contacts.find(top, other);
+        if (next == null) return;
+
+        Contact now = contacts.find(top, ground);
+        if (now == null || Math.abs(next.x(other) - top.px) < Math.abs(now.x(ground) - top.px)) ground = other;
+    }
+
+    @Override
+    public int apply(double timeMs) {
+        // Use the point under us from the last impact with the ground
+        Contact contact = contacts.find(top, ground);
+        if (contact == null) return BROKEN; // not touched recently
+
+        double adx = Math.abs(contact.x(ground) - top.px);
+        double dy = contact.y(ground) - top.py;
+
+        if (dy > diffHeight) return BROKEN; // off surface from the top
+
+        if (adx > 10 || dy < -5) return BROKEN; // off end, with coyote time
+        return OK;
+    }
+
+    @Override
+    public void unlink() {
+        top.unlinkConstraint(this);
+    }
+
+    @Override
+    public void recycle() {
+        pool.release(this);
+    }
+
+    private static void clear(StandingOnGround c) {
+        c.top = null;
+        c.ground = null;
+        c.contacts = null;
+    }
+}
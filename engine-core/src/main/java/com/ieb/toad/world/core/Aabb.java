@@ -0,0 +1,64 @@
+package com.ieb.toad.world.core;
+
+/**
+ * Axis-aligned box with integer edges, in level pixels.
+ * Used for hit boxes and zones in place of a platform rectangle type, so the simulation
+ * doesn't depend on Android. Edges follow the same rules as `android.graphics.Rect`:
+ * `left` and `top` are inside the box, `right` and `bottom` are just outside it.
+ */
+public class Aabb {
+    public int left, top, right, bottom;
+
+    /** Empty box at 0,0 */
+    public Aabb() {
+    }
+
+    public Aabb(int left, int top, int right, int bottom) {
+        set(left, top, right, bottom);
+    }
+
+    public void set(int left, int top, int right, int bottom) {
+        this.left = left;
+        this.top = top;
+        this.right = right;
+        this.bottom = bottom;
+    }
+
+    public int width() {
+        return right - left;
+    }
+
+    public int height() {
+        return bottom - top;
+    }
+
+    public int centerX() {
+        return (left + right) >> 1;
+    }
+
+    public int centerY() {
+        return (top + bottom) >> 1;
+    }
+
+    /** Returns true if the box has no area */
+    public boolean isEmpty() {
+        return left >= right || top >= bottom;
+    }
+
+    /** Returns true if x,y is inside the box */
+    public boolean contains(int x, int y) {
+        return left < right && top < bottom
+                && x >= left && x < right && y >= top && y < bottom;
+    }
+
+    /** Returns true if this box and the given edges overlap */
+    public boolean intersects(int left, int top, int right, int bottom) {
+        return this.left < right && left < this.right && this.top < bottom && top < this.bottom;
+    }
+
+    /** @noinspection NullableProblems*/
+    @Override
+    public String toString() {
+        return "Aabb(" + left + ", " + top + " - " + right + ", " + bottom + ")";
+    }
+}
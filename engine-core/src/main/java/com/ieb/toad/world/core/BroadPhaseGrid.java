@@ -0,0 +1,184 @@
+package com.ieb.toad.world.core;
+
+import java.util.List;
+
+/**
+ * Uniform grid broad-phase for collision tests.
+ * Things are binned into square cells by their edges, so the
+ * simulator only needs to test things in nearby cells against each other.
+ * Cells are hashed into a fixed size table, so levels can be any size
+ * and the grid never needs to allocate once it has warmed up.
+ */
+public class BroadPhaseGrid {
+    /** Size of a grid cell in world pixels. About two creeps wide. */
+    public static final int CELL_SIZE = 128;
+
+    /** Extra space around each thing, to cover small pushes during a simulator step */
+    public static final double PADDING = 8.0;
+
+    /** Things that cover more cells than this are kept in a list that every query sees */
+    private static final int MAX_CELLS = 64;
+
+    private static final int TABLE_SIZE = 1024; // must be a power of 2
+    private static final int TABLE_MASK = TABLE_SIZE - 1;
+
+    private final Thing[][] buckets = new Thing[TABLE_SIZE][];
+    private final int[] bucketCounts = new int[TABLE_SIZE];
+    private final int[] usedBuckets = new int[TABLE_SIZE];
+    private int usedCount;
+
+    private Thing[] oversize = new Thing[16];
+    private int oversizeCount;
+
+    private Thing[] results = new Thing[32];
+    private int resultCount;
+    private int queryStamp;
+
+    /** Remove all things from the grid */
+    public void clear() {
+        for (int i = 0; i < usedCount; i++) {
+            int b = usedBuckets[i];
+            Thing[] bucket = buckets[b];
+            for (int j = 0; j < bucketCounts[b]; j++) bucket[j] = null;
+            bucketCounts[b] = 0;
+        }
+        usedCount = 0;
+
+        for (int i = 0; i < oversizeCount; i++) oversize[i] = null;
+        oversizeCount = 0;
+    }
+
+    /** Clear the grid and add all objects, in order.
+     * Each thing's `simIndex` is set to its position in the list.
+     * Bounds are padded by the distance each thing could move in one simulator step. */
+    public void rebuild(List<Thing> objects) {
+        clear();
+        for (int i = 0; i < objects.size(); i++) {
+            Thing t = objects.get(i);
+            t.simIndex = i;
+            t.queryStamp = 0;
+            double pad = PADDING + (Math.abs(t.vx) + Math.abs(t.vy)) * Simulator.h;
+            add(t, Math.min(t.left(), t.right()) - pad, Math.min(t.top(), t.bottom()) - pad,
+                    Math.max(t.left(), t.right()) + pad, Math.max(t.top(), t.bottom()) + pad);
+        }
+        queryStamp = 0;
+    }
+
+    /** Add a thing covering the given area */
+    public void add(Thing t, double left, double top, double right, double bottom) {
+        int cx0 = cell(left), cx1 = cell(right);
+        int cy0 = cell(top), cy1 = cell(bottom);
+
+        if (cellCount(cx0, cy0, cx1, cy1) > MAX_CELLS) {
+            if (oversizeCount >= oversize.length) oversize = grow(oversize);
+            oversize[oversizeCount++] = t;
+            return;
+        }
+
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                int b = hash(cx, cy);
+                int count = bucketCounts[b];
+                if (count == 0) usedBuckets[usedCount++] = b;
+
+                Thing[] bucket = buckets[b];
+                if (bucket == null) {
+                    bucket = new Thing[8];
+                    buckets[b] = bucket;
+                } else if (count >= bucket.length) {
+                    bucket = grow(bucket);
+                    buckets[b] = bucket;
+                }
+                bucket[count] = t;
+                bucketCounts[b] = count + 1;
+            }
+        }
+    }
+
+    /**
+     * Find things that might touch the given area, and that have a `simIndex` greater than `afterIndex`.
+     * Results are sorted by `simIndex`, so they are tested in the same order as the full list would be.
+     * Read results with `resultCount()` and `result(i)`. Results are only valid until the next query.
+     */
+    public int query(double left, double top, double right, double bottom, int afterIndex) {
+        resultCount = 0;
+        int stamp = ++queryStamp;
+
+        int cx0 = cell(left), cx1 = cell(right);
+        int cy0 = cell(top), cy1 = cell(bottom);
+
+        if (cellCount(cx0, cy0, cx1, cy1) > TABLE_SIZE) {
+            // query is bigger than the table. Every bucket could match.
+            for (int i = 0; i < usedCount; i++) collect(usedBuckets[i], afterIndex, stamp);
+        } else {
+            for (int cy = cy0; cy <= cy1; cy++) {
+                for (int cx = cx0; cx <= cx1; cx++) {
+                    collect(hash(cx, cy), afterIndex, stamp);
+                }
+            }
+        }
+
+        for (int i = 0; i < oversizeCount; i++) {
+            accept(oversize[i], afterIndex, stamp);
+        }
+
+        sortResults();
+        return resultCount;
+    }
+
+    /** Number of results from last query */
+    public int resultCount() {
+        return resultCount;
+    }
+
+    /** Get a result from the last query */
+    public Thing result(int i) {
+        return results[i];
+    }
+
+    private void collect(int b, int afterIndex, int stamp) {
+        Thing[] bucket = buckets[b];
+        int count = bucketCounts[b];
+        for (int i = 0; i < count; i++) accept(bucket[i], afterIndex, stamp);
+    }
+
+    private void accept(Thing t, int afterIndex, int stamp) {
+        if (t.simIndex <= afterIndex) return;
+        if (t.queryStamp == stamp) return; // already seen in another cell
+        t.queryStamp = stamp;
+
+        if (resultCount >= results.length) results = grow(results);
+        results[resultCount++] = t;
+    }
+
+    /** Insertion sort on simIndex. Result sets are small and mostly in order already */
+    private void sortResults() {
+        for (int i = 1; i < resultCount; i++) {
+            Thing t = results[i];
+            int j = i - 1;
+            while (j >= 0 && results[j].simIndex > t.simIndex) {
+                results[j + 1] = results[j];
+                j--;
+            }
+            results[j + 1] = t;
+        }
+    }
+
+    private static int cell(double v) {
+        return (int) Math.floor(v / CELL_SIZE);
+    }
+
+    private static long cellCount(int cx0, int cy0, int cx1, int cy1) {
+        return ((long) cx1 - cx0 + 1) * ((long) cy1 - cy0 + 1);
+    }
+
+    private static int hash(int cx, int cy) {
+        return ((cx * 73856093) ^ (cy * 19349663)) & TABLE_MASK;
+    }
+
+    private static Thing[] grow(Thing[] src) {
+        Thing[] dst = new Thing[src.length * 2];
+        System.arraycopy(src, 0, dst, 0, src.length);
+        return dst;
+    }
+}
@@ -0,0 +1,31 @@
+package com.ieb.toad.world.core;
+
+/**
+ * Result of a ray or circle cast. Reuse one of these between casts to avoid allocation.
+ */
+public class CastHit {
+    /** The first thing hit, or null if nothing was hit */
+    public Thing thing;
+
+    /** How far along the cast the hit happened, 0..1 */
+    public double fraction;
+
+    /** Position of the cast point (or circle centre) when it hit */
+    public double x, y;
+
+    /** Unit direction away from the hit surface */
+    public double normalX, normalY;
+
+    /** Returns true if the last cast hit something */
+    public boolean hit() {
+        return thing != null;
+    }
+
+    /** Reset to no-hit */
+    public void clear() {
+        thing = null;
+        fraction = Sweep.MISS;
+        x = y = 0.0;
+        normalX = normalY = 0.0;
+    }
+}
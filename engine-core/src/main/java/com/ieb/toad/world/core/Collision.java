@@ -5,6 +5,9 @@ public abstract class Collision {
     /** free space */
     public static final int NULL = 0;
 
+    /** Every type. Used as a mask for things that can interact with anything */
+    public static final int ANY = ~0;
+
     /** Immovable wall */
     public static final int WALL = 1;
 
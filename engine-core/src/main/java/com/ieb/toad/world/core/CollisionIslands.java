@@ -0,0 +1,142 @@
+package com.ieb.toad.world.core;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Splits a list of candidate pairs into islands: groups of pairs that share no things.
+ * Islands are packed into batches, and batches are solved on a fork-join pool.
+ * Within a batch, pairs are solved in their original order. As no thing is in two
+ * islands, the result is exactly the same as solving every pair in order on one thread.
+ */
+public class CollisionIslands {
+    /** Solves a single candidate pair, by index */
+    public interface PairSolver {
+        void solvePair(int pairIndex);
+    }
+
+    private final ForkJoinPool pool;
+    private final PairSolver solver;
+    private final BatchTask[] tasks;
+    private final RootTask root = new RootTask();
+
+    private int[] parent = new int[256]; // union-find over thing ids
+    private int[] islandBatch = new int[256]; // batch for each island root, or -1
+    private int[] islandSize = new int[256]; // pair count for each island root
+    private int[] pairOrder = new int[256]; // pair indexes, grouped by batch, in order
+    private final int[] batchStart, batchEnd;
+
+    public CollisionIslands(PairSolver solver, int threads) {
+        this.solver = solver;
+        pool = new ForkJoinPool(Math.max(1, threads));
+        tasks = new BatchTask[Math.max(1, threads)];
+        for (int i = 0; i < tasks.length; i++) tasks[i] = new BatchTask(i);
+        batchStart = new int[tasks.length];
+        batchEnd = new int[tasks.length];
+    }
+
+    /**
+     * Solve all pairs. Things in each pair are given by id, 0 .. thingCount-1.
+     * This returns once every pair has been solved.
+     */
+    public void solve(int[] idA, int[] idB, int pairCount, int thingCount) {
+        if (pairCount < 1) return;
+        split(idA, idB, pairCount, thingCount);
+        root.reinitialize();
+        pool.invoke(root);
+    }
+
+    /** Stop the worker threads */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private void split(int[] idA, int[] idB, int pairCount, int thingCount) {
+        if (parent.length < thingCount) {
+            parent = new int[thingCount * 2];
+            islandBatch = new int[thingCount * 2];
+            islandSize = new int[thingCount * 2];
+        }
+        if (pairOrder.length < pairCount) pairOrder = new int[pairCount * 2];
+
+        for (int i = 0; i < thingCount; i++) {
+            parent[i] = i;
+            islandBatch[i] = -1;
+            islandSize[i] = 0;
+        }
+
+        // join things that are in the same pair
+        for (int p = 0; p < pairCount; p++) {
+            int ra = find(idA[p]);
+            int rb = find(idB[p]);
+            if (ra != rb) parent[rb] = ra;
+        }
+        for (int p = 0; p < pairCount; p++) {
+            islandSize[find(idA[p])]++;
+        }
+
+        // pack islands into batches, in order of first pair, so batches are about the same size
+        int batches = tasks.length;
+        int target = (pairCount + batches - 1) / batches;
+        int batch = 0, inBatch = 0;
+        for (int b = 0; b < batches; b++) batchEnd[b] = 0;
+        for (int p = 0; p < pairCount; p++) {
+            int r = find(idA[p]);
+            if (islandBatch[r] >= 0) continue;
+            if (inBatch >= target && batch < batches - 1) {
+                batch++;
+                inBatch = 0;
+            }
+            islandBatch[r] = batch;
+            inBatch += islandSize[r];
+            batchEnd[batch] += islandSize[r];
+        }
+
+        // lay out pairs by batch, keeping their original order
+        int offset = 0;
+        for (int b = 0; b < batches; b++) {
+            batchStart[b] = offset;
+            offset += batchEnd[b];
+            batchEnd[b] = batchStart[b];
+        }
+        for (int p = 0; p < pairCount; p++) {
+            int b = islandBatch[find(idA[p])];
+            pairOrder[batchEnd[b]++] = p;
+        }
+    }
+
+    private int find(int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]]; // path halving
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private class BatchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int batch;
+
+        BatchTask(int batch) {
+            this.batch = batch;
+        }
+
+        @Override
+        protected void compute() {
+            int end = batchEnd[batch];
+            for (int i = batchStart[batch]; i < end; i++) {
+                solver.solvePair(pairOrder[i]);
+            }
+        }
+    }
+
+    private class RootTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected void compute() {
+            for (BatchTask task : tasks) task.reinitialize();
+            invokeAll(tasks);
+        }
+    }
+}
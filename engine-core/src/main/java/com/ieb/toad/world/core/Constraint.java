@@ -0,0 +1,49 @@
+package com.ieb.toad.world.core;
+
+/**
+ * Base for constraint types.
+ */
+public abstract class Constraint {
+    /** Constraint is no longer valid and should be removed */
+    public static final int BROKEN = -1;
+    /** Constraint is still valid */
+    public static final int OK = 0;
+
+    // Kinds of constraint. Each constraint class has one, so things can find linked constraints by kind.
+    // Kinds are bit positions, so there can be at most 32.
+    /** `CarryingObject` */
+    public static final int CARRYING_OBJECT = 0;
+    /** `OnLadder` */
+    public static final int ON_LADDER = 1;
+    /** `StandingAtDoor` */
+    public static final int STANDING_AT_DOOR = 2;
+    /** `StandingOnCreep` */
+    public static final int STANDING_ON_CREEP = 3;
+    /** `StandingOnGround` */
+    public static final int STANDING_ON_GROUND = 4;
+
+    /** Kind of this constraint. One of the kind constants above */
+    public final int kind;
+
+    /** Position in the level's constraint list, or -1 if not in a list */
+    int slot = -1;
+
+    protected Constraint(int kind) {
+        this.kind = kind;
+    }
+
+    /** Apply this constraint to its linked objects.
+     * This is allowed to make direct changes to linked objects.
+     *
+     * @return one of Constraint.OK, Constraint.BROKEN. If Broken is returned, the constraint is unlinked and removed. */
+    public abstract int apply(double timeMs);
+
+    /** SHOULD ONLY BE CALLED BY 'Level'. Use 'Level.removeConstraint'.
+     * This constraint is being lost. Remove any references.  */
+    public abstract void unlink();
+
+    /** SHOULD ONLY BE CALLED BY 'Level'.
+     * This constraint has been unlinked and removed, and won't be used again.
+     * Pooled constraints return themselves to their pool here. */
+    public void recycle() {}
+}
@@ -0,0 +1,59 @@
+package com.ieb.toad.world.core;
+
+import java.util.Arrays;
+
+/**
+ * The set of constraints in a level, in the order they were added.
+ * Constraints are applied in this order, and results like carrying and standing depend on it.
+ * Each constraint records its own position, so adding and removing are constant time.
+ * Removed constraints leave a gap, which is closed up, keeping order, the next time the list is read.
+ */
+public class ConstraintList {
+    private Constraint[] items = new Constraint[32];
+    private int count; // slots used, including gaps
+    private int gaps;
+
+    /** Add a constraint. No effect if it is already in a list */
+    public void add(Constraint c) {
+        if (c.slot >= 0) return;
+        if (count >= items.length) items = Arrays.copyOf(items, items.length * 2);
+        c.slot = count;
+        items[count++] = c;
+    }
+
+    /** Remove a constraint. No effect if it is not in this list. Returns true if it was removed */
+    public boolean remove(Constraint c) {
+        int i = c.slot;
+        if (i < 0 || i >= count || items[i] != c) return false;
+
+        items[i] = null;
+        gaps++;
+        c.slot = -1;
+        return true;
+    }
+
+    /** Number of constraints */
+    public int size() {
+        return count - gaps;
+    }
+
+    /** Get a constraint by position, in the order they were added */
+    public Constraint get(int i) {
+        if (gaps > 0) compact();
+        return items[i];
+    }
+
+    /** Close up gaps left by removed constraints, keeping order */
+    private void compact() {
+        int w = 0;
+        for (int i = 0; i < count; i++) {
+            Constraint c = items[i];
+            if (c == null) continue;
+            c.slot = w;
+            items[w++] = c;
+        }
+        Arrays.fill(items, w, count, null);
+        count = w;
+        gaps = 0;
+    }
+}
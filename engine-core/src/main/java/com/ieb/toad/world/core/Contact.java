@@ -0,0 +1,38 @@
+package com.ieb.toad.world.core;
+
+/**
+ * A touch between two things, kept by `ContactCache` across simulator steps.
+ * Positions are from the impact test, so for walls and other shaped things
+ * they are the virtual impact point, not the thing's own position.
+ */
+public class Contact {
+    /** The things touching. Order is as first found by the simulator */
+    public Thing a, b;
+
+    /** Centre of each thing's hit circle when they last touched */
+    public double ax, ay, bx, by;
+
+    /** Simulator steps since the things last touched. Zero if they touched in the current step */
+    public int age;
+
+    /** Next contact in the same bucket, or in the free list */
+    Contact next;
+
+    /** Position in the cache's list of contacts */
+    int slot;
+
+    /** Returns the thing touching `t` */
+    public Thing other(Thing t) {
+        return t == a ? b : a;
+    }
+
+    /** X position of `t`'s hit circle when the things last touched */
+    public double x(Thing t) {
+        return t == a ? ax : bx;
+    }
+
+    /** Y position of `t`'s hit circle when the things last touched */
+    public double y(Thing t) {
+        return t == a ? ay : by;
+    }
+}
@@ -0,0 +1,129 @@
+package com.ieb.toad.world.core;
+
+/**
+ * Contacts between pairs of things, kept across simulator steps and frames.
+ * The simulator records a contact each step that two things touch, if either has `trackContacts` set.
+ * Contacts that haven't been touched for `EXPIRE_STEPS` are dropped. Dropped contacts are reused,
+ * so a steady set of contacts doesn't allocate.
+ */
+public class ContactCache {
+    /** Steps a contact is kept after its things stop touching. About 1/10th of a second */
+    public static final int EXPIRE_STEPS = (int) (Simulator.N / 10);
+
+    private Contact[] buckets = new Contact[64]; // chained by `Contact.next`. Length is a power of two
+    private Contact[] live = new Contact[32]; // every contact in the cache, in the first `count` places
+    private int count;
+    private Contact free; // dropped contacts, chained by `Contact.next`
+
+    /** Find the contact between two things, in either order. Returns null if they haven't touched recently */
+    public Contact find(Thing a, Thing b) {
+        for (Contact c = buckets[bucket(a, b)]; c != null; c = c.next) {
+            if ((c.a == a && c.b == b) || (c.a == b && c.b == a)) return c;
+        }
+        return null;
+    }
+
+    /** Number of contacts in the cache */
+    public int size() {
+        return count;
+    }
+
+    /** Record that two things touched in this step, with the centres of their hit circles */
+    void touch(Thing a, double ax, double ay, Thing b, double bx, double by) {
+        Contact c = find(a, b);
+        if (c == null) c = insert(a, b);
+
+        if (c.a == a) {
+            c.ax = ax; c.ay = ay;
+            c.bx = bx; c.by = by;
+        } else {
+            c.ax = bx; c.ay = by;
+            c.bx = ax; c.by = ay;
+        }
+        c.age = 0;
+    }
+
+    /** Age all contacts by one step, and drop any that have expired. Called at the start of each step */
+    void beginStep() {
+        // backwards, so the contact moved into a dropped slot has already been aged
+        for (int i = count - 1; i >= 0; i--) {
+            Contact c = live[i];
+            if (++c.age > EXPIRE_STEPS) drop(c);
+        }
+    }
+
+    /**
+     * Drop every contact that includes a thing. Called when the thing leaves the simulation,
+     * as contacts are matched by identity, and a pooled thing can come back as a new one.
+     */
+    void remove(Thing t) {
+        // backwards, so the contact moved into a dropped slot has already been checked
+        for (int i = count - 1; i >= 0; i--) {
+            Contact c = live[i];
+            if (c.a == t || c.b == t) drop(c);
+        }
+    }
+
+    private Contact insert(Thing a, Thing b) {
+        if (count >= buckets.length) rehash(buckets.length * 2);
+        if (count >= live.length) {
+            Contact[] bigger = new Contact[live.length * 2];
+            System.arraycopy(live, 0, bigger, 0, count);
+            live = bigger;
+        }
+
+        Contact c = free;
+        if (c == null) c = new Contact();
+        else free = c.next;
+
+        c.a = a;
+        c.b = b;
+        int i = bucket(a, b);
+        c.next = buckets[i];
+        buckets[i] = c;
+        c.slot = count;
+        live[count++] = c;
+        return c;
+    }
+
+    private void drop(Contact c) {
+        // unchain from bucket
+        int i = bucket(c.a, c.b);
+        if (buckets[i] == c) {
+            buckets[i] = c.next;
+        } else {
+            Contact prev = buckets[i];
+            while (prev.next != c) prev = prev.next;
+            prev.next = c.next;
+        }
+
+        // fill the gap in the live list with the last contact
+        count--;
+        Contact last = live[count];
+        live[c.slot] = last;
+        last.slot = c.slot;
+        live[count] = null;
+
+        c.a = null;
+        c.b = null;
+        c.next = free;
+        free = c;
+    }
+
+    private void rehash(int size) {
+        buckets = new Contact[size];
+        for (int i = 0; i < count; i++) {
+            Contact c = live[i];
+            int bi = bucket(c.a, c.b);
+            c.next = buckets[bi];
+            buckets[bi] = c;
+        }
+    }
+
+    /** Bucket for a pair of things. The same in either order */
+    private int bucket(Thing a, Thing b) {
+        int h = System.identityHashCode(a) ^ System.identityHashCode(b);
+        h ^= h >>> 16;
+        return h & (buckets.length - 1);
+    }
+}
@@ -0,0 +1,115 @@
+package com.ieb.toad.world.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bounded store of reusable objects, so gameplay doesn't allocate after warm-up.
+ * `obtain` takes a free object, or creates one if there are none. `release` resets an object
+ * and keeps it for later, unless the pool is full, in which case it is left to the garbage collector.
+ * Pools are not thread safe; use them only from the simulator thread. Only `totalCreated` may be read from other threads.
+ */
+public class Pool<T> {
+    /** Makes a new object when the pool is empty */
+    public interface Factory<T> {
+        T create();
+    }
+
+    /** Clears an object as it is released, so it doesn't hold on to other objects while free */
+    public interface Reset<T> {
+        void reset(T item);
+    }
+
+    /** Every pool made, for stats */
+    private static final List<Pool<?>> all = new ArrayList<>();
+
+    /** Name for stats */
+    public final String name;
+
+    private final Factory<T> factory;
+    private final Reset<T> reset;
+    private final Object[] free;
+    private int freeCount;
+
+    private volatile int created; // only written by the simulator thread, but read by `totalCreated` on the render thread
+    private int live, dropped;
+
+    /**
+     * @param name name to show in stats
+     * @param capacity most free objects kept
+     * @param factory makes new objects
+     * @param reset called on each object as it is released. May be null
+     */
+    public Pool(String name, int capacity, Factory<T> factory, Reset<T> reset) {
+        this.name = name;
+        this.factory = factory;
+        this.reset = reset;
+        free = new Object[capacity];
+        synchronized (all) {
+            all.add(this);
+        }
+    }
+
+    /** Take a free object, or make a new one */
+    @SuppressWarnings("unchecked")
+    public T obtain() {
+        live++;
+        if (freeCount > 0) {
+            T item = (T) free[--freeCount];
+            free[freeCount] = null;
+            return item;
+        }
+        created++;
+        return factory.create();
+    }
+
+    /** Reset an object and return it to the pool. The caller must not use it afterwards */
+    public void release(T item) {
+        live--;
+        if (reset != null) reset.reset(item);
+        if (freeCount < free.length) free[freeCount++] = item;
+        else dropped++;
+    }
+
+    /** Objects obtained and not yet released */
+    public int live() {
+        return live;
+    }
+
+    /** Objects waiting in the pool */
+    public int free() {
+        return freeCount;
+    }
+
+    /** Objects made by this pool. This stops rising once the pool is warmed up */
+    public int created() {
+        return created;
+    }
+
+    /** Objects released while the pool was full */
+    public int dropped() {
+        return dropped;
+    }
+
+    /** Total objects made by all pools. Useful to check gameplay isn't allocating. Safe to call from any thread */
+    public static int totalCreated() {
+        int total = 0;
+        synchronized (all) {
+            for (int i = 0; i < all.size(); i++) total += all.get(i).created;
+        }
+        return total;
+    }
+
+    /** Stats for all pools, as 'name live/free/created' */
+    public static String stats() {
+        StringBuilder sb = new StringBuilder();
+        synchronized (all) {
+            for (int i = 0; i < all.size(); i++) {
+                Pool<?> p = all.get(i);
+                if (sb.length() > 0) sb.append("; ");
+                sb.append(p.name).append(' ').append(p.live).append('/').append(p.freeCount).append('/').append(p.created);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,108 @@
+package com.ieb.toad.world.core;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Things to draw, bucketed by `Thing.layer`.
+ * The list only keeps order; drawing is done by a `Painter`, so the simulation core doesn't depend on graphics.
+ * Adding and removing are constant time, and don't change the order of other things.
+ * Removed things leave a gap, which is closed up the next time the layer is drawn.
+ */
+public class RenderList {
+    /** Draws one thing. Called for each thing in the list, lowest layer first */
+    public interface Painter {
+        void paint(@NotNull Thing t);
+    }
+
+    /** Things on one layer, in the order they were added. Removed things are null until compacted */
+    private static class Layer {
+        final int layer;
+        Thing[] items = new Thing[16];
+        int count;
+        int gaps;
+
+        Layer(int layer) {
+            this.layer = layer;
+        }
+    }
+
+    private Layer[] layers = new Layer[4]; // sorted by layer value, lowest first
+    private int layerCount;
+    private int size;
+
+    /** Add a thing, on its current `layer`. No effect if it is already in the list */
+    public void add(Thing t) {
+        if (t.renderSlot >= 0) return;
+
+        Layer l = layerFor(t.layer);
+        if (l.count >= l.items.length) l.items = Arrays.copyOf(l.items, l.items.length * 2);
+        t.renderLayer = t.layer;
+        t.renderSlot = l.count;
+        l.items[l.count++] = t;
+        size++;
+    }
+
+    /** Remove a thing. No effect if it is not in the list */
+    public void remove(Thing t) {
+        if (t.renderSlot < 0) return;
+
+        Layer l = find(t.renderLayer);
+        if (l == null || l.items[t.renderSlot] != t) return;
+        l.items[t.renderSlot] = null;
+        l.gaps++;
+        t.renderSlot = -1;
+        size--;
+    }
+
+    /** Number of things in the list */
+    public int size() {
+        return size;
+    }
+
+    /** Draw all things, lowest layer first */
+    public void draw(@NotNull Painter painter) {
+        for (int li = 0; li < layerCount; li++) {
+            Layer l = layers[li];
+            if (l.gaps > 0) compact(l);
+            for (int i = 0; i < l.count; i++) {
+                painter.paint(l.items[i]);
+            }
+        }
+    }
+
+    /** Close up gaps left by removed things, keeping order */
+    private static void compact(Layer l) {
+        int w = 0;
+        for (int i = 0; i < l.count; i++) {
+            Thing t = l.items[i];
+            if (t == null) continue;
+            t.renderSlot = w;
+            l.items[w++] = t;
+        }
+        Arrays.fill(l.items, w, l.count, null);
+        l.count = w;
+        l.gaps = 0;
+    }
+
+    private Layer find(int layer) {
+        for (int i = 0; i < layerCount; i++) {
+            if (layers[i].layer == layer) return layers[i];
+        }
+        return null;
+    }
+
+    /** Find the bucket for a layer, adding it in order if needed. There are only ever a few layers */
+    private Layer layerFor(int layer) {
+        int i = 0;
+        while (i < layerCount && layers[i].layer < layer) i++;
+        if (i < layerCount && layers[i].layer == layer) return layers[i];
+
+        if (layerCount >= layers.length) layers = Arrays.copyOf(layers, layers.length * 2);
+        System.arraycopy(layers, i, layers, i + 1, layerCount - i);
+        layers[i] = new Layer(layer);
+        layerCount++;
+        return layers[i];
+    }
+}
@@ -0,0 +1,54 @@
+package com.ieb.toad.world.core;
+
+public interface SimulationManager {
+
+    /** Return what is at x,y on this level. Returns one of `Collision` */
+    int hitTest(double x, double y);
+
+    /** Test several points at once. `results[i]` is set to what is at xs[i],ys[i], as for `hitTest`.
+     * Cheaper than separate `hitTest` calls when the points are close together. */
+    void hitTest(double[] xs, double[] ys, int count, int[] results);
+
+    /** Find things whose bounds overlap the given area. Fills `out` and returns the number of things found */
+    int thingsInArea(double left, double top, double right, double bottom, Thing[] out);
+
+    /** Find things within `distance` of x,y. Fills `out` and returns the number of things found */
+    int thingsNear(double x, double y, double distance, Thing[] out);
+
+    /** Find the first thing of a type in `mask` on the line from x0,y0 to x1,y1. Returns true and fills `hit` if found */
+    boolean raycast(double x0, double y0, double x1, double y1, int mask, CastHit hit);
+
+    /** Find the first thing of a type in `mask` hit by a circle moving from x0,y0 to x1,y1.
+     * Things touching the circle at the start are ignored. Returns true and fills `hit` if found */
+    boolean circleCast(double x0, double y0, double x1, double y1, double radius, int mask, CastHit hit);
+
+    /** Contacts for things with `trackContacts` set. Kept across steps, so constraints can read them */
+    ContactCache contacts();
+
+    /** add a constraint to the simulation */
+    void addConstraint(Constraint c);
+
+    /** unlink and remove a constraint from the simulation. No effect if constraint is not present. */
+    void removeConstraint(Constraint c);
+
+    /** Remove a thing from the simulation. This will also break any linked constraints */
+    void removeThing(Thing t);
+
+    /** Find a moving thing by its `Thing.handle()`. Returns null if it has been removed */
+    Thing findThing(long handle);
+
+    /** Move player to next door with name 'target', starting from first after srcObjId */
+    void moveNextDoor(String target, int srcObjId);
+
+    /** Player is damaged. Reset to last checkpoint. */
+    void damagePlayer();
+
+    /** Add a thing to the simulation */
+    void addThing(Thing thing);
+
+    /** Return true if the given thing is in the camera view */
+    boolean isOnScreen(Thing thing);
+
+    /** Distance in pixels from the edge of the camera view to the bounds of a thing. Zero if on screen */
+    double screenDistance(Thing thing);
+}
@@ -0,0 +1,1079 @@
+package com.ieb.toad.world.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs a leapfrog integrator for the physics
+ */
+public class Simulator {
+
+    /**
+     * steps per time period.
+     * Fast objects are swept against walls, so this does not need to be high enough to stop tunnelling.
+     */
+    public static final double N = 60 * 2;
+
+    /**
+     * Step rate that drag and platform values were tuned at.
+     * Per-step effects are scaled by `TUNED_STEPS` so they feel the same at any `N`
+     */
+    public static final double TUNED_N = 60 * 4;
+
+    /**
+     * Number of tuned-rate steps covered by one step
+     */
+    public static final double TUNED_STEPS = TUNED_N / N;
+
+    /**
+     * `TUNED_STEPS` as a whole number, or -1 if it is not one.
+     * When it is whole, `dragFactor` multiplies rather than calling `Math.pow`.
+     */
+    private static final int WHOLE_TUNED_STEPS = (TUNED_STEPS == Math.rint(TUNED_STEPS)) ? (int) TUNED_STEPS : -1;
+
+    /**
+     * step size parameter
+     */
+    public static final double h = 1.0 / N;
+
+    /**
+     * h²
+     */
+    public static final double h2 = h * h;
+
+    /**
+     * Real time covered by one step, in ms
+     */
+    public static final double STEP_MS = 1000.0 / N;
+
+    /**
+     * Most steps run by one call to `solve`.
+     * If the game falls further behind than this (a very slow frame, or the app was paused)
+     * the extra time is dropped and the game slows down for a moment, rather than running
+     * more steps, which makes the next frame slower, and so on.
+     */
+    public static final int MAX_STEPS = 12;
+
+    /**
+     * Default time between thinks, in ms. See `Thing.thinkRate`
+     */
+    public static final double THINK_MS = 1000.0 / 24.0;
+
+    /**
+     * Gravity acceleration
+     */
+    public static final double gravity = 2500.0;
+
+    /**
+     * Speed below which an object is at rest, in px/s.
+     * Objects resting on the ground jitter a little under gravity, so this is not zero.
+     */
+    public static final double SLEEP_SPEED = 100.0;
+
+    /**
+     * Distance an object can drift while at rest, in px
+     */
+    public static final double SLEEP_DISTANCE = 2.0;
+
+    /**
+     * Time an object must be at rest before it sleeps, in seconds
+     */
+    public static final double SLEEP_TIME = 0.5;
+
+    /**
+     * How far past the first touch a swept object is stopped, in px.
+     * Some walls (e.g. one-way platforms) only impact when slightly overlapped.
+     */
+    public static final double SWEEP_SKIN = 1.5;
+
+    /** Container for objects in the simulation */
+    private final SimulationManager level;
+
+    /** Decides which things think in each step */
+    private final ThinkScheduler thinkers = new ThinkScheduler();
+
+    /** Set when things are added or removed, so the think schedule is updated before the next step */
+    private boolean thinkersStale = true;
+
+    /** Real time waiting to be simulated, in ms. Always less than one step after `solve` */
+    private double accumulator = 0.0;
+
+    /** Spatial index of objects, rebuilt every iteration */
+    private final BroadPhaseGrid grid = new BroadPhaseGrid();
+
+    /** Objects that are awake, in list order. These are integrated and tested against everything nearby */
+    private final List<Thing> active = new ArrayList<>();
+
+    /** Objects that are sleeping, in list order. These only get tested against active objects */
+    private final List<Thing> sleepers = new ArrayList<>();
+
+    /** Spatial index of sleeping objects. Sleepers don't move, so this is only rebuilt when the set changes */
+    private final BroadPhaseGrid sleepGrid = new BroadPhaseGrid();
+
+    /** Set when objects fall asleep or are woken, so the active and sleeping lists need to be rebuilt */
+    private boolean sleepChanged = true;
+
+    /** If true, impact tests between moving objects are split into islands and run on worker threads.
+     * Results are exactly the same as the single-threaded path. Can be changed at any time. */
+    public boolean parallelCollisions = false;
+
+    /** Fewest candidate pairs worth sending to worker threads */
+    public static final int PARALLEL_MIN_PAIRS = 256;
+
+    /** Number of worker threads for parallel collisions. With one core, we always run on the simulator thread */
+    private static final int WORKERS = Runtime.getRuntime().availableProcessors();
+
+    // Kinds of candidate pair
+    private static final byte PAIR_MOVING = 0, PAIR_SLEEPER = 1, PAIR_WALL = 2;
+
+    // Candidate pairs for the current step, in test order. This doubles as the step's contact list:
+    // once all tests are done, `impactResolve` is called in this order for pairs that impacted,
+    // and for pairs where either thing wants proximity events.
+    private Thing[] pairA = new Thing[256], pairB = new Thing[256];
+    private int[] pairIdA = new int[256], pairIdB = new int[256];
+    private byte[] pairKind = new byte[256];
+    private boolean[] pairImpacted = new boolean[256];
+    private double[] pairCentres = new double[256 * 4]; // hit circle centres at impact, for tracked contacts
+    private int pairCount;
+
+    /** Contacts for things with `trackContacts` set, kept across steps */
+    private final ContactCache contacts = new ContactCache();
+
+    /** Worker threads for collisions. Created when first needed */
+    private CollisionIslands islands;
+
+    private final List<Constraint> brokenConstraints = new ArrayList<>(16);
+    private final List<Thing> deadThings = new ArrayList<>(16);
+
+    /** Objects and walls from the last `solve`. Spatial queries search these */
+    private List<Thing> indexedObjects;
+    private StaticGeometry indexedStatics;
+
+    /** Set when things are added or removed, so the spatial index is rebuilt before the next query */
+    private boolean indexStale = true;
+
+    /** Things near a batch of probes. Gathered once, then tested against each probe */
+    private Thing[] probeCandidates = new Thing[64];
+
+    public Simulator(SimulationManager level) {
+        this.level = level;
+    }
+
+    /** Stop the worker threads for parallel collisions, if any were started. Call when the level is finished with.
+     * If the simulator is used again, workers are started again when needed */
+    public void shutdown() {
+        if (islands == null) return;
+        islands.shutdown();
+        islands = null;
+    }
+
+    /**
+     * Fixed-step Leapfrog solver.
+     * Elapsed time is added to an accumulator, and as many whole steps are run as it covers.
+     * Time left over is kept for the next call. Use `alpha()` to draw between steps.
+     *
+     * @param dt time elapsed since last call in ms
+     * @param objects things that can move
+     * @param statics immovable things. These are not integrated, and only tested against `objects`
+     * @param constraints all constraints in the level, applied after each step
+     * @return Returns time advanced in ms. This is `dt` unless time was dropped by the `MAX_STEPS` limit
+     */
+    public final double solve(double dt, List<Thing> objects, StaticGeometry statics, ConstraintList constraints) {
+        // We always solve to a fixed step-time,
+        // but we change the number of steps
+        // based on the frame time
+        double adv = Math.max(0.0, dt);
+        accumulator += adv;
+        int iterations = (int) (accumulator / STEP_MS); // number of iterations we will run
+
+        // Limit catch-up runs to prevent big jumps if frame timer stalls
+        if (iterations > MAX_STEPS) {
+            adv -= accumulator - (MAX_STEPS * STEP_MS); // drop time we can't catch up
+            iterations = MAX_STEPS;
+            accumulator = iterations * STEP_MS;
+        }
+        accumulator -= iterations * STEP_MS;
+
+        indexedObjects = objects;
+        indexedStatics = statics;
+        checkSleepers();
+        thinkers.frame();
+
+        for (int i = 0; i < iterations; i++) {
+            // Split sleeping objects from active ones, if anything changed
+            if (sleepChanged || objects.size() != active.size() + sleepers.size()) {
+                splitSleepers(objects);
+            }
+
+            // Index objects by location, so we only test nearby pairs
+            grid.rebuild(active);
+            indexStale = false;
+
+            // Record positions before the step, for drawing between steps
+            for (int oi = 0; oi < active.size(); oi++) {
+                Thing obj = active.get(oi);
+                obj.lastX = obj.px;
+                obj.lastY = obj.py;
+            }
+
+            // Run the iteration on objects that are awake.
+            // Positions all advance first, then impacts are resolved, then velocities advance.
+            advancePositions(active);
+
+            contacts.beginStep();
+            applyCollisions(statics);
+
+            advanceVelocities(active);
+
+            for (int oi = 0; oi < active.size(); oi++) {
+                Thing obj = active.get(oi);
+
+                // Put object to sleep if it has been resting in one place for a while
+                double rdx = obj.px - obj.restX;
+                double rdy = obj.py - obj.restY;
+                if (isResting(obj) && (rdx * rdx) + (rdy * rdy) < SLEEP_DISTANCE * SLEEP_DISTANCE) {
+                    obj.restTime += h;
+                    if (obj.restTime >= SLEEP_TIME) {
+                        obj.sleeping = true;
+                        obj.vx = 0;
+                        obj.vy = 0;
+                        obj.restX = obj.px; // so `checkSleepers` can tell if it is moved
+                        obj.restY = obj.py;
+                        sleepChanged = true;
+                    }
+                } else {
+                    obj.restTime = 0.0;
+                    obj.restX = obj.px;
+                    obj.restY = obj.py;
+                }
+            }
+
+            // Apply all constraints
+            for (int ci = 0; ci < constraints.size(); ci++){
+                Constraint c = constraints.get(ci);
+                if (c.apply(STEP_MS) == Constraint.BROKEN) brokenConstraints.add(c);
+            }
+
+            for (int bi = 0; bi < brokenConstraints.size(); bi++) level.removeConstraint(brokenConstraints.get(bi));
+            brokenConstraints.clear();
+
+            // Run things that are due to think in this step
+            if (thinkersStale) {
+                thinkers.sync(objects, statics.thinkers()); // walls don't think, so are not in this list
+                thinkersStale = false;
+            }
+            if (thinkers.step(level, deadThings) > 0) {
+                checkSleepers(); // sleepers may have been given something to do
+            }
+
+            for (int di = 0; di < deadThings.size(); di++) level.removeThing(deadThings.get(di));
+            deadThings.clear();
+        }
+        return adv;
+    }
+
+    /**
+     * Fraction of a step that has passed since the last step ran, 0..1.
+     * Things should be drawn this far between their last and current positions.
+     */
+    public double alpha() {
+        return accumulator / STEP_MS;
+    }
+
+    /** Contacts between things with `trackContacts` set. Updated each step, before constraints are applied */
+    public ContactCache contacts() {
+        return contacts;
+    }
+
+    /**
+     * Call when things are added to or removed from the simulation,
+     * so spatial queries don't return removed things or miss new ones.
+     */
+    public void objectsChanged() {
+        indexStale = true;
+        sleepChanged = true;
+        thinkersStale = true;
+    }
+
+    /**
+     * Call when a thing is removed from the simulation.
+     * It stops thinking straight away, so a pooled thing can be reused in the same step.
+     * Sleepers touching it are woken, as they may have been resting on it, and its contacts are dropped.
+     */
+    public void thingRemoved(Thing t) {
+        thinkers.unschedule(t);
+        contacts.remove(t);
+        wakeSleepersTouching(t);
+        objectsChanged();
+    }
+
+    /** Schedule for `think` calls, with stats on thinks per frame */
+    public ThinkScheduler thinkers() {
+        return thinkers;
+    }
+
+    /**
+     * Find things whose bounds overlap the given area.
+     * Up to `out.length` things are written to `out`: moving things first, then sleeping things, then walls.
+     * Returns the number of things written.
+     */
+    public int queryArea(double left, double top, double right, double bottom, Thing[] out) {
+        refreshIndex();
+        int found = 0;
+
+        int count = grid.query(left, top, right, bottom, -1);
+        for (int i = 0; i < count && found < out.length; i++) {
+            Thing t = grid.result(i);
+            if (overlaps(t, left, top, right, bottom)) out[found++] = t;
+        }
+
+        count = sleepGrid.query(left, top, right, bottom, -1);
+        for (int i = 0; i < count && found < out.length; i++) {
+            Thing t = sleepGrid.result(i);
+            if (overlaps(t, left, top, right, bottom)) out[found++] = t;
+        }
+
+        if (indexedStatics == null) return found;
+        count = indexedStatics.query(left, top, right, bottom);
+        for (int i = 0; i < count && found < out.length; i++) {
+            Thing t = indexedStatics.result(i);
+            if (overlaps(t, left, top, right, bottom)) out[found++] = t;
+        }
+        return found;
+    }
+
+    /**
+     * Find things within `distance` of x,y. Circles are measured to their edge, and boxes to their closest point.
+     * Up to `out.length` things are written to `out`, in the same order as `queryArea`.
+     * Returns the number of things written.
+     */
+    public int queryRadius(double x, double y, double distance, Thing[] out) {
+        int count = queryArea(x - distance, y - distance, x + distance, y + distance, out);
+        int found = 0;
+        for (int i = 0; i < count; i++) {
+            Thing t = out[i];
+            if (distanceTo(t, x, y) <= distance) out[found++] = t;
+        }
+        for (int i = found; i < count; i++) out[i] = null;
+        return found;
+    }
+
+    /**
+     * Find the first thing of a type in `mask` that a ray from x0,y0 to x1,y1 hits.
+     * Same as `circleCast` with a zero radius.
+     */
+    public boolean raycast(double x0, double y0, double x1, double y1, int mask, CastHit hit) {
+        return circleCast(x0, y0, x1, y1, 0.0, mask, hit);
+    }
+
+    /**
+     * Find the first thing of a type in `mask` that a circle moving from x0,y0 to x1,y1 hits.
+     * Things with a radius are tested as circles, others as their bounding box.
+     * Things already touching the circle at the start are ignored, so a thing can cast from its own position.
+     * Returns true and fills in `hit` if something was hit. Otherwise `hit` is cleared.
+     */
+    public boolean circleCast(double x0, double y0, double x1, double y1, double radius, int mask, CastHit hit) {
+        hit.clear();
+        refreshIndex();
+
+        double dx = x1 - x0, dy = y1 - y0;
+        int candidates = gatherCandidates(Math.min(x0, x1) - radius, Math.min(y0, y1) - radius,
+                Math.max(x0, x1) + radius, Math.max(y0, y1) + radius);
+
+        for (int i = 0; i < candidates; i++) {
+            Thing t = probeCandidates[i];
+            probeCandidates[i] = null;
+            if ((t.type & mask) == 0) continue;
+
+            double time;
+            if (t.radius > 0) {
+                time = Sweep.circleVsCircle(x0, y0, dx, dy, radius, t.px, t.py, t.radius);
+            } else {
+                time = Sweep.circleVsBox(x0, y0, dx, dy, radius,
+                        Math.min(t.left(), t.right()), Math.min(t.top(), t.bottom()),
+                        Math.max(t.left(), t.right()), Math.max(t.top(), t.bottom()));
+            }
+            if (time >= hit.fraction || time > 1.0) continue;
+
+            hit.thing = t;
+            hit.fraction = time;
+        }
+
+        if (hit.thing == null) {
+            hit.clear();
+            return false;
+        }
+
+        hit.x = x0 + dx * hit.fraction;
+        hit.y = y0 + dy * hit.fraction;
+        castNormal(hit);
+        return true;
+    }
+
+    /** Set the surface normal of a cast hit, from the hit position and the shape of the thing hit */
+    private static void castNormal(CastHit hit) {
+        Thing t = hit.thing;
+        double nx, ny;
+        if (t.radius > 0) {
+            nx = hit.x - t.px;
+            ny = hit.y - t.py;
+        } else {
+            double left = Math.min(t.left(), t.right()), right = Math.max(t.left(), t.right());
+            double top = Math.min(t.top(), t.bottom()), bottom = Math.max(t.top(), t.bottom());
+            nx = hit.x - Math.min(Math.max(hit.x, left), right);
+            ny = hit.y - Math.min(Math.max(hit.y, top), bottom);
+
+            if ((nx * nx) + (ny * ny) < 1e-12) { // a ray touching the box: use the closest edge
+                double dl = hit.x - left, dr = right - hit.x, dt = hit.y - top, db = bottom - hit.y;
+                double min = Math.min(Math.min(dl, dr), Math.min(dt, db));
+                nx = (min == dl) ? -1 : (min == dr) ? 1 : 0;
+                ny = (nx != 0) ? 0 : (min == dt) ? -1 : 1;
+            }
+        }
+        double len = Math.sqrt((nx * nx) + (ny * ny));
+        hit.normalX = nx / len;
+        hit.normalY = ny / len;
+    }
+
+    /**
+     * Return what the probe thing is touching, as a combination of `Collision` flags.
+     * The probe should already be at the point to test, and is not part of the simulation.
+     */
+    public int hitTest(Thing probe) {
+        refreshIndex();
+        int candidates = gatherCandidates(probe.left(), probe.top(), probe.right(), probe.bottom());
+        int hits = probeCandidates(probe, candidates);
+        for (int i = 0; i < candidates; i++) probeCandidates[i] = null;
+        return hits;
+    }
+
+    /**
+     * Test a batch of points with the probe thing. `results[i]` is set to the `hitTest` result at (xs[i], ys[i]).
+     * Things near the probes are only looked up once, so this is cheaper than many `hitTest` calls on the same area.
+     * The probe is left at the last point.
+     */
+    public void hitTest(Thing probe, double[] xs, double[] ys, int count, int[] results) {
+        if (count < 1) return;
+        refreshIndex();
+
+        double left = xs[0], top = ys[0], right = xs[0], bottom = ys[0];
+        for (int i = 1; i < count; i++) {
+            left = Math.min(left, xs[i]);
+            right = Math.max(right, xs[i]);
+            top = Math.min(top, ys[i]);
+            bottom = Math.max(bottom, ys[i]);
+        }
+        double r = Math.abs(probe.radius);
+        int candidates = gatherCandidates(left - r, top - r, right + r, bottom + r);
+
+        for (int i = 0; i < count; i++) {
+            probe.px = xs[i];
+            probe.py = ys[i];
+            results[i] = probeCandidates(probe, candidates);
+        }
+        for (int i = 0; i < candidates; i++) probeCandidates[i] = null;
+    }
+
+    /** Collect things from all indexes that might touch the given area into `probeCandidates` */
+    private int gatherCandidates(double left, double top, double right, double bottom) {
+        int found = 0;
+        int count = grid.query(left, top, right, bottom, -1);
+        for (int i = 0; i < count; i++) found = addCandidate(found, grid.result(i));
+
+        count = sleepGrid.query(left, top, right, bottom, -1);
+        for (int i = 0; i < count; i++) found = addCandidate(found, sleepGrid.result(i));
+
+        if (indexedStatics == null) return found;
+        count = indexedStatics.query(left, top, right, bottom);
+        for (int i = 0; i < count; i++) found = addCandidate(found, indexedStatics.result(i));
+        return found;
+    }
+
+    private int addCandidate(int found, Thing t) {
+        if (found >= probeCandidates.length) probeCandidates = Arrays.copyOf(probeCandidates, found * 2);
+        probeCandidates[found] = t;
+        return found + 1;
+    }
+
+    /** Test the probe against the first `count` candidates, and combine the types of things it hits */
+    private int probeCandidates(Thing probe, int count) {
+        double pad = BroadPhaseGrid.PADDING + Math.abs(probe.radius);
+        int hits = 0;
+        for (int i = 0; i < count; i++) {
+            Thing obj = probeCandidates[i];
+            if (obj == probe) continue;
+
+            // skip things that can't be close, without calling their impact tests
+            double reach = pad + (Math.abs(obj.vx) + Math.abs(obj.vy)) * h;
+            if (!overlaps(obj, probe.px - reach, probe.py - reach, probe.px + reach, probe.py + reach)) continue;
+
+            obj.preImpactTest(probe);
+            boolean hit = hitTest(probe, obj);
+            obj.postImpactTest();
+
+            if (hit) hits = hits | obj.type;
+        }
+        return hits;
+    }
+
+    /** Bring the spatial index up to date, if things have been added or removed since it was built */
+    private void refreshIndex() {
+        if (!indexStale || indexedObjects == null) return;
+        splitSleepers(indexedObjects);
+        grid.rebuild(active);
+        indexStale = false;
+    }
+
+    private static boolean overlaps(Thing t, double left, double top, double right, double bottom) {
+        if (Math.max(t.left(), t.right()) < left || Math.min(t.left(), t.right()) > right) return false;
+        return Math.max(t.top(), t.bottom()) >= top && Math.min(t.top(), t.bottom()) <= bottom;
+    }
+
+    private static double distanceTo(Thing t, double x, double y) {
+        if (t.radius > 0) {
+            double dx = t.px - x, dy = t.py - y;
+            return Math.max(0.0, Math.sqrt((dx * dx) + (dy * dy)) - t.radius);
+        }
+        double cx = Math.min(Math.max(x, Math.min(t.left(), t.right())), Math.max(t.left(), t.right()));
+        double cy = Math.min(Math.max(y, Math.min(t.top(), t.bottom())), Math.max(t.top(), t.bottom()));
+        double dx = cx - x, dy = cy - y;
+        return Math.sqrt((dx * dx) + (dy * dy));
+    }
+
+    /** Advance positions by one step, then apply drag */
+    void advancePositions(List<Thing> objects) {
+        for (int oi = 0; oi < objects.size(); oi++) {
+            Thing obj = objects.get(oi);
+            obj.px += (obj.vx * h) + (0.5 * obj.a0x * h2);
+            obj.py += (obj.vy * h) + (0.5 * obj.a0y * h2);
+
+            double drc = dragFactor(obj.drag);
+            obj.vx *= drc;
+            obj.vy *= drc;
+        }
+    }
+
+    /**
+     * Velocity kept after one step of drag: (1 - drag) ^ `TUNED_STEPS`.
+     * For whole step ratios this is a short run of multiplies, rather than a `Math.pow` in the integrator loop.
+     */
+    static double dragFactor(double drag) {
+        double keep = Math.max(0.0, 1.0 - drag);
+        if (WHOLE_TUNED_STEPS < 0) return Math.pow(keep, TUNED_STEPS);
+
+        double factor = 1.0;
+        for (int i = 0; i < WHOLE_TUNED_STEPS; i++) factor *= keep;
+        return factor;
+    }
+
+    /** Advance velocities by one step, and check terminal velocity */
+    void advanceVelocities(List<Thing> objects) {
+        for (int oi = 0; oi < objects.size(); oi++) {
+            Thing obj = objects.get(oi);
+
+            // apply proportional gravity
+            double g = 2.0 * gravity * obj.gravity;
+
+            // Advance velocity
+            obj.vx += (0.5 * (obj.a0x + obj.ax) * h);
+            obj.vy += (0.5 * (obj.a0y + obj.ay + g) * h);
+
+            // Step values forward
+            obj.a0x = obj.ax;
+            obj.a0y = obj.ay;
+
+            // Check terminal velocity
+            double maxV2 = obj.terminalVelocity * obj.terminalVelocity;
+            double v02 = (obj.vx * obj.vx) + (obj.vy * obj.vy);
+            if (v02 > maxV2) { // need to restrict velocity
+                double adj = obj.terminalVelocity / Math.sqrt(v02);
+                obj.vx *= adj;
+                obj.vy *= adj;
+            }
+        }
+    }
+
+    /** Returns true if an object is slow enough to sleep */
+    private boolean isResting(Thing obj) {
+        if (obj.ax != 0.0 || obj.ay != 0.0) return false;
+        if (obj.anyConstraints()) return false;
+        return (obj.vx * obj.vx) + (obj.vy * obj.vy) < SLEEP_SPEED * SLEEP_SPEED;
+    }
+
+    /** Wake any sleepers that have been moved, given a velocity or acceleration, or were woken directly */
+    private void checkSleepers() {
+        for (int i = 0; i < sleepers.size(); i++) {
+            Thing t = sleepers.get(i);
+            if (t.sleeping && !isUndisturbed(t)) t.wake();
+            if (!t.sleeping) sleepChanged = true;
+        }
+    }
+
+    /** Returns true if a sleeper is just as it was when it fell asleep, with nothing to do */
+    private static boolean isUndisturbed(Thing t) {
+        if (t.ax != 0.0 || t.ay != 0.0 || t.anyConstraints()) return false;
+        return t.vx == 0.0 && t.vy == 0.0 && t.px == t.restX && t.py == t.restY;
+    }
+
+    /** Wake sleepers touching a thing, because it is going away and they may have been resting on it */
+    private void wakeSleepersTouching(Thing t) {
+        double left = Math.min(t.left(), t.right()) - SLEEP_DISTANCE;
+        double top = Math.min(t.top(), t.bottom()) - SLEEP_DISTANCE;
+        double right = Math.max(t.left(), t.right()) + SLEEP_DISTANCE;
+        double bottom = Math.max(t.top(), t.bottom()) + SLEEP_DISTANCE;
+
+        int count = sleepGrid.query(left, top, right, bottom, -1);
+        for (int i = 0; i < count; i++) {
+            Thing sleeper = sleepGrid.result(i);
+            if (sleeper != t && touching(t, t.px, t.py, sleeper)) sleeper.wake();
+        }
+    }
+
+    /**
+     * Returns true if thing `t`, if it were at x,y, would be within `SLEEP_DISTANCE` of `other`.
+     * Circles are measured centre to centre. Anything else is measured by its bounds.
+     */
+    private static boolean touching(Thing t, double x, double y, Thing other) {
+        if (t.radius > 0 && other.radius > 0) {
+            double dx = other.px - x, dy = other.py - y;
+            double r = t.radius + other.radius + SLEEP_DISTANCE;
+            return (dx * dx) + (dy * dy) <= r * r;
+        }
+
+        double ox = x - t.px, oy = y - t.py;
+        return Math.min(t.left(), t.right()) + ox <= Math.max(other.left(), other.right()) + SLEEP_DISTANCE
+                && Math.max(t.left(), t.right()) + ox >= Math.min(other.left(), other.right()) - SLEEP_DISTANCE
+                && Math.min(t.top(), t.bottom()) + oy <= Math.max(other.top(), other.bottom()) + SLEEP_DISTANCE
+                && Math.max(t.top(), t.bottom()) + oy >= Math.min(other.top(), other.bottom()) - SLEEP_DISTANCE;
+    }
+
+    /** Rebuild the active and sleeping lists, keeping list order */
+    private void splitSleepers(List<Thing> objects) {
+        active.clear();
+        sleepers.clear();
+        for (int i = 0; i < objects.size(); i++) {
+            Thing t = objects.get(i);
+            if (t.sleeping) sleepers.add(t);
+            else active.add(t);
+        }
+        sleepGrid.rebuild(sleepers);
+        sleepChanged = false;
+    }
+
+    /**
+     * Test and resolve collisions for all active objects.
+     * Pairs of moving and sleeping objects are found first, then tested (on worker threads if enabled).
+     * Walls are shared by many objects, so are always tested on this thread, after other objects.
+     * Finally `impactResolve` is called in order, on this thread, for pairs that impacted
+     * or that have a thing with `proximityEvents` set. Impacts with a thing that has `trackContacts` set
+     * are recorded in the contact cache first, so game logic can read them.
+     */
+    private void applyCollisions(StaticGeometry statics) {
+        pairCount = 0;
+        for (int oi = 0; oi < active.size(); oi++) {
+            findPairs(active.get(oi));
+        }
+
+        if (parallelCollisions && WORKERS > 1 && pairCount >= PARALLEL_MIN_PAIRS) {
+            if (islands == null) islands = new CollisionIslands(this::solvePair, WORKERS);
+            islands.solve(pairIdA, pairIdB, pairCount, active.size() + sleepers.size());
+        } else {
+            for (int p = 0; p < pairCount; p++) solvePair(p);
+        }
+
+        for (int oi = 0; oi < active.size(); oi++) {
+            Thing self = active.get(oi);
+            sweepWalls(self, statics);
+
+            int first = pairCount;
+            findWalls(self, statics);
+            for (int p = first; p < pairCount; p++) solvePair(p);
+        }
+
+        for (int p = 0; p < pairCount; p++) {
+            Thing a = pairA[p], b = pairB[p];
+            pairA[p] = null;
+            pairB[p] = null;
+
+            boolean impacted = pairImpacted[p];
+            if (impacted && (a.trackContacts || b.trackContacts)) {
+                int k = p * 4;
+                contacts.touch(a, pairCentres[k], pairCentres[k + 1], b, pairCentres[k + 2], pairCentres[k + 3]);
+            }
+            if (!impacted && !a.proximityEvents && !b.proximityEvents) continue;
+            a.impactResolve(level, b, impacted);
+            b.impactResolve(level, a, impacted);
+        }
+    }
+
+    /** Add candidate pairs for nearby moving and sleeping objects */
+    private void findPairs(Thing self) {
+        double pad = BroadPhaseGrid.PADDING + (Math.abs(self.vx) + Math.abs(self.vy)) * h;
+        double left = Math.min(self.left(), self.right()) - pad;
+        double top = Math.min(self.top(), self.bottom()) - pad;
+        double right = Math.max(self.left(), self.right()) + pad;
+        double bottom = Math.max(self.top(), self.bottom()) + pad;
+
+        // Find nearby objects later in the list. Earlier ones have already tested against us.
+        int count = grid.query(left, top, right, bottom, self.simIndex);
+        for (int i = 0; i < count; i++) {
+            Thing other = grid.result(i);
+            if (!canInteract(self, other)) continue;
+            addPair(self, other, other.simIndex, PAIR_MOVING);
+        }
+
+        // Find nearby sleeping objects. These never test against anything themselves.
+        count = sleepGrid.query(left, top, right, bottom, -1);
+        for (int i = 0; i < count; i++) {
+            Thing sleeper = sleepGrid.result(i);
+            if (!canInteract(self, sleeper)) continue;
+            addPair(self, sleeper, active.size() + sleeper.simIndex, PAIR_SLEEPER);
+        }
+    }
+
+    /**
+     * If an object moved far this step, find the first wall its circle touched on the way,
+     * and move it back to that point. The normal impact test then bounces it off the wall.
+     * Without this, fast objects could pass through thin walls between steps.
+     */
+    private void sweepWalls(Thing self, StaticGeometry statics) {
+        if (self.radius <= 0) return;
+
+        double sx = self.lastX, sy = self.lastY; // position before this step
+        double dx = self.px - sx, dy = self.py - sy;
+        double minMove = self.radius * 0.5;
+        if ((dx * dx) + (dy * dy) < minMove * minMove) return; // slow enough for normal tests
+
+        double r = self.radius + BroadPhaseGrid.PADDING;
+        int count = statics.query(Math.min(sx, self.px) - r, Math.min(sy, self.py) - r,
+                Math.max(sx, self.px) + r, Math.max(sy, self.py) + r);
+
+        double endX = self.px, endY = self.py;
+        double first = 1.0;
+        for (int i = 0; i < count; i++) {
+            Thing wall = statics.result(i);
+            if (!canInteract(self, wall)) continue;
+            double t = Sweep.circleVsBox(sx, sy, dx, dy, self.radius,
+                    wall.left(), wall.top(), wall.right(), wall.bottom());
+            if (t >= first) continue;
+
+            // Check the wall and the object would collide at that point (e.g. one-way platforms, ladders)
+            self.px = sx + dx * t;
+            self.py = sy + dy * t;
+            wall.vx = 0;
+            wall.vy = 0;
+            boolean wallAccepts = wall.preImpactTest(self);
+            boolean test = wallAccepts && self.preImpactTest(wall);
+            test &= ((self.type | wall.type) & Collision.PASS_THROUGH) != Collision.PASS_THROUGH;
+            if (wallAccepts) self.postImpactTest();
+            wall.postImpactTest();
+            self.px = endX;
+            self.py = endY;
+
+            if (test) first = t;
+        }
+
+        if (first < 1.0) {
+            // stop just inside the contact distance, so the impact test is sure to see it
+            first = Math.min(1.0, first + SWEEP_SKIN / Math.sqrt((dx * dx) + (dy * dy)));
+            self.px = sx + dx * first;
+            self.py = sy + dy * first;
+        }
+    }
+
+    /** Add candidate pairs for nearby walls. These never move, so are only tested against moving objects. */
+    private void findWalls(Thing self, StaticGeometry statics) {
+        double pad = BroadPhaseGrid.PADDING + (Math.abs(self.vx) + Math.abs(self.vy)) * h;
+        int count = statics.query(
+                Math.min(self.left(), self.right()) - pad, Math.min(self.top(), self.bottom()) - pad,
+                Math.max(self.left(), self.right()) + pad, Math.max(self.top(), self.bottom()) + pad);
+        for (int i = 0; i < count; i++) {
+            Thing wall = statics.result(i);
+            if (!canInteract(self, wall)) continue;
+            addPair(self, wall, -1, PAIR_WALL);
+        }
+    }
+
+    /** Returns false if the types and masks of two things mean they never interact. See `Thing.collidesWith` */
+    private static boolean canInteract(Thing a, Thing b) {
+        return inMask(a.type, b.collidesWith) && inMask(b.type, a.collidesWith);
+    }
+
+    /** True if a type is in a mask. Things with no type (`Collision.NULL`) are in every mask, as they were before masks */
+    private static boolean inMask(int type, int mask) {
+        return type == Collision.NULL || (type & mask) != 0;
+    }
+
+    private void addPair(Thing self, Thing other, int otherId, byte kind) {
+        if (pairCount >= pairA.length) {
+            int size = pairA.length * 2;
+            pairA = Arrays.copyOf(pairA, size);
+            pairB = Arrays.copyOf(pairB, size);
+            pairIdA = Arrays.copyOf(pairIdA, size);
+            pairIdB = Arrays.copyOf(pairIdB, size);
+            pairKind = Arrays.copyOf(pairKind, size);
+            pairImpacted = Arrays.copyOf(pairImpacted, size);
+            pairCentres = Arrays.copyOf(pairCentres, size * 4);
+        }
+        pairA[pairCount] = self;
+        pairB[pairCount] = other;
+        pairIdA[pairCount] = self.simIndex;
+        pairIdB[pairCount] = otherId;
+        pairKind[pairCount] = kind;
+        pairImpacted[pairCount] = false;
+        pairCount++;
+    }
+
+    /**
+     * Test and resolve a single candidate pair.
+     * This can run on a worker thread, so must only change the two things in the pair.
+     */
+    private void solvePair(int p) {
+        Thing self = pairA[p];
+        Thing other = pairB[p];
+
+        switch (pairKind[p]) {
+            case PAIR_SLEEPER: {
+                // If we are moving, we wake anything we hit, and anything we were touching, as it may be resting on us.
+                // If we have been at rest for a while we are just leaning on it, and the sleeper is held in place
+                // like a wall, unless we have drifted off it. Something slow but still moving, like a body coasting
+                // into the sleeper, keeps resetting its rest time so is never 'leaning'. Half of `SLEEP_TIME` means
+                // two leaning things always fall asleep together, rather than taking turns waking each other.
+                // Speed is checked before the impact changes it.
+                boolean resting = isResting(self);
+                boolean leaning = resting && self.restTime >= SLEEP_TIME / 2;
+                double spx = other.px, spy = other.py;
+                boolean impacted = impactPair(self, other, p);
+                if (impacted && leaning) {
+                    other.px = spx;
+                    other.py = spy;
+                    other.vx = 0;
+                    other.vy = 0;
+                } else if (impacted || (touching(self, self.lastX, self.lastY, other)
+                        && (!resting || !touching(self, self.px, self.py, other)))) {
+                    other.wake();
+                    sleepChanged = true; // only ever set to true here, so safe from any thread
+                }
+                pairImpacted[p] = impacted;
+                return;
+            }
+
+            case PAIR_WALL:
+                other.vx = 0; // clear virtual velocity from any earlier impact test
+                other.vy = 0;
+                pairImpacted[p] = impactPair(self, other, p);
+                return;
+
+            default:
+                pairImpacted[p] = impactPair(self, other, p);
+        }
+    }
+
+    /** Check a pair of objects for collisions, and resolve any impact. Returns true if the objects touched.
+     * `impactResolve` is not called here, so that game logic always runs on the simulator thread.
+     * For tracked contacts, hit circle centres are kept in `pairCentres` at index `p` */
+    private boolean impactPair(Thing self, Thing other, int p) {
+        // allow virtual impact point to be created, or objects to veto impact testing.
+        // If `other` vetoes, `self` is never asked, so must not be cleaned up either.
+        boolean otherAccepts = other.preImpactTest(self);
+        boolean test = otherAccepts && self.preImpactTest(other);
+
+        boolean impacted = false;
+        if (test && other.radius > 0 && self.radius > 0) {
+            boolean collides = ((self.type | other.type) & Collision.PASS_THROUGH) != Collision.PASS_THROUGH;
+            double time = impactTime(self, other);
+            if (time <= h && (self.trackContacts || other.trackContacts)) {
+                int k = p * 4;
+                pairCentres[k] = self.px;
+                pairCentres[k + 1] = self.py;
+                pairCentres[k + 2] = other.px;
+                pairCentres[k + 3] = other.py;
+            }
+
+            if (time <= 0) { // objects are overlapping
+                impacted = true;
+                if (collides){
+                    pushApart(self, other); // ensure we're not overlapping
+                    resolveCollision(self, other, 0); // handle bounce as if at surface
+                }
+            } else if (time <= h) { // objects will impact within a simulator frame
+                impacted = true;
+                if (collides){
+                    resolveCollision(self, other, time); // resolve collision forward in time
+                }
+            }
+        }
+
+        if (otherAccepts) self.postImpactTest();
+        other.postImpactTest();
+        return impacted;
+    }
+
+    /** Returns true if two objects are touching, or would collide in the next simulator frame */
+    public boolean hitTest(Thing obj, Thing other){
+        return impactTime(obj, other) <= h;
+    }
+
+    private double impactTime(Thing obj, Thing other) {
+        // if the other object has a hit circle,
+        // do ball-to-ball calculations and affect both objects
+        double dx = other.px - obj.px;
+        double dy = other.py - obj.py;
+
+        double r = other.radius + obj.radius;
+        double rSqr = r * r;
+        double dSqr = (dx * dx) + (dy * dy);
+
+        // Distance the objects could close in one step
+        double reach = r + (Math.abs(other.vx - obj.vx) + Math.abs(other.vy - obj.vy)) * h;
+
+        // First, do a cheap collision test
+        if (dSqr < (rSqr - 1.0)){ // objects are overlapping
+            return -1;
+        } else if (dSqr <= Math.max(rSqr * 2, reach * reach)) { // if impact is possible
+            double t = impactFraction(obj, other); // do exact collision test
+            if (t > 0 && t <= h) { // objects collide within a solver step
+                return t;
+            }
+        }
+        return 1000.0; // just a large value to say no-impact
+    }
+
+    /**
+     * Returns fraction of obj.v where impact occurs 0..1 if there is an impact.
+     * This can return results out of the range if impact happens earlier or later.
+     */
+    public final double impactFraction(Thing obj, Thing other) {
+        // Expansion of:
+        //     "d = √( (o2.px + o2.vx * t - o1.px + o1.vx * t)² + (o2.py + o2.vy * t - o1.y + o1.vy * t)²)"
+        // to solve in terms of 't' 0..1 where "d = o1.radius + o2.radius"
+        double o1vx = obj.vx, o1vy = obj.vy, o1vx2 = o1vx * o1vx, o1vy2 = o1vy * o1vy;
+        double o1x = obj.px, o1y = obj.py, o1x2 = o1x * o1x, o1y2 = o1y * o1y;
+        double o1r = obj.radius, o1r2 = o1r * o1r;
+
+        double o2vx = other.vx, o2vy = other.vy, o2vx2 = o2vx * o2vx, o2vy2 = o2vy * o2vy;
+        double o2x = other.px, o2y = other.py, o2x2 = o2x * o2x, o2y2 = o2y * o2y;
+        double o2r = other.radius, o2r2 = o2r * o2r;
+
+        double a = o1vx2 + o1vy2 - 2 * o1vx * o2vx + o2vx2 - 2 * o1vy * o2vy + o2vy2;
+        double b = -o1x * o1vx - o1y * o1vy + o1vx * o2x + o1vy * o2y + o1x * o2vx - o2x * o2vx + o1y * o2vy - o2y * o2vy;
+        double c = o1x2 + o1y2 - o1r2 - 2 * o1x * o2x + o2x2 - 2 * o1y * o2y + o2y2 - 2 * o1r * o2r - o2r2;
+
+        double n2b = b * -2;
+        double discriminant = (n2b * n2b) - 4 * a * c;
+
+        double dSqrt = Math.sqrt(discriminant);
+        double t = Math.min(
+                0.5 * (2 * b - dSqrt) / a,
+                0.5 * (2 * b + dSqrt) / a
+        );
+        return Math.max(0, t);
+    }
+
+    /**
+     * Bounce two objects, by changing velocity. Objects should be in contact.
+     * Package-private for the kernel benchmarks.
+     *
+     * @param other object 2
+     * @param t     fraction of object velocities where impact occurs
+     */
+    void resolveCollision(Thing obj, Thing other, double t) {
+        // calculate position of impact
+        double ix1 = obj.px + obj.vx * t;
+        double iy1 = obj.py + obj.vy * t;
+
+        double ix2 = other.px + other.vx * t;
+        double iy2 = other.py + other.vy * t;
+
+        // calculate tangents of impact
+        double nx = (ix1 - ix2) / (obj.radius + other.radius);
+        double ny = (iy1 - iy2) / (obj.radius + other.radius);
+
+        // optional: normalise nx,ny
+        double nSum = Math.sqrt((nx * nx) + (ny*ny));
+        nx /= nSum;
+        ny /= nSum;
+
+        double a1 = obj.vx * nx + obj.vy * ny;
+        double a2 = other.vx * nx + other.vy * ny;
+
+        double coe = Math.min(1.0, obj.elasticity * other.elasticity);
+        double p = coe * 2 * (a1 - a2) / (obj.mass + other.mass);
+
+        // apply to velocity of both objects
+        obj.vx -= p * nx * other.mass;
+        obj.vy -= p * ny * other.mass;
+
+        other.vx += p * nx * obj.mass;
+        other.vy += p * ny * obj.mass;
+    }
+
+    /**
+     * Check if there is an overlap between two objects.
+     * Package-private for the kernel benchmarks.
+     */
+    void pushApart(Thing obj, Thing other) {
+        double dx = obj.px - other.px;
+        double dy = obj.py - other.py;
+        double d2 = (dx * dx) + (dy * dy);
+        double rs = obj.radius + other.radius;
+
+        if (d2 >= (rs * rs)) return;
+
+        if (d2 < 0.1) {
+            // objects are in the same place.
+            // we will push them apart arbitrarily
+            obj.px -= obj.radius;
+            other.px += other.radius;
+            // share velocity to prevent 'zipping'
+            double avx = (obj.vx + other.vx) / 2.0;
+            double avy = (obj.vy + other.vy) / 2.0;
+            obj.vx = avx;
+            obj.vy = avy;
+            other.vx = avx;
+            other.vy = avy;
+            return;
+        }
+
+        double d = Math.sqrt(d2); // current distance between centres
+        if (d >= rs) return; // not really overlapping
+
+        double dd = rs - d; // overlap distance
+        double frac = (dd / d); // fraction of current distance (dx,dy) to adjust
+        double ms = obj.mass + other.mass;
+
+        if (frac < 0.00001) return; // just barely touching
+        if (frac > 1.0 && !other.immovable) frac = 1.0;
+
+        double objFrac, otherFrac;
+        if (other.immovable) { // walls copy the other's mass to bounce, but never give way
+            objFrac = 1.0;
+            otherFrac = 0.0;
+        } else if (ms > 0.01) {
+            objFrac = Math.min(1.0, other.mass / ms);
+            otherFrac = Math.min(1.0, obj.mass / ms);
+        } else { // if tiny mass, just push apart equally
+            objFrac = 0.5;
+            otherFrac = 0.5;
+        }
+
+        // push apart based on mass
+        double dpx = dx * frac * objFrac;
+        obj.px += limit(dpx, obj.radius);
+
+        double dpy = dy * frac * objFrac;
+        obj.py += limit(dpy, obj.radius);
+
+        double opx = dx * frac * otherFrac;
+        other.px -= limit(opx, other.radius);
+
+        double opy = dy * frac * otherFrac;
+        other.py -= limit(opy, other.radius);
+    }
+
+    private double limit(double val, double range) {
+        if (val < -range) return -range;
+        return Math.min(val, range);
+    }
+}
@@ -0,0 +1,240 @@
+package com.ieb.toad.world.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Store for immovable things (walls, platforms, doors).
+ * These are held in a bounding volume hierarchy that is built once when the level loads,
+ * so the simulator can find the walls near a moving thing without testing every wall.
+ * Static things are never integrated, and are never tested against each other.
+ */
+public class StaticGeometry {
+    /** Max things in a leaf node */
+    private static final int LEAF_SIZE = 4;
+
+    /** All static things, in the order they were added */
+    private final List<Thing> things = new ArrayList<>();
+
+    /** Static things that have a `think` override */
+    private final List<Thing> thinkers = new ArrayList<>();
+
+    // Tree nodes. Children of an internal node are at `left` and `left+1`.
+    // Leaf nodes have `count` > 0, and cover `order[start .. start+count]`
+    private double[] minX, minY, maxX, maxY;
+    private int[] left, start, count;
+    private int nodeCount;
+
+    private int[] order; // thing indexes, grouped by leaf
+    private double[] centreX, centreY; // used during build
+
+    private int[] stack = new int[64];
+    private int[] results = new int[32];
+    private int resultCount;
+
+    /** Replace all static things and rebuild the tree */
+    public void build(List<Thing> statics) {
+        things.clear();
+        things.addAll(statics);
+        rebuild();
+    }
+
+    /** Add a static thing. This rebuilds the whole tree, so should be rare after loading */
+    public void add(Thing t) {
+        things.add(t);
+        rebuild();
+    }
+
+    /** Remove a static thing. This rebuilds the whole tree, so should be rare after loading.
+     * Returns false if the thing was not present */
+    public boolean remove(Thing t) {
+        if (!things.remove(t)) return false;
+        rebuild();
+        return true;
+    }
+
+    /** Number of static things */
+    public int size() {
+        return things.size();
+    }
+
+    /** Get a static thing by index */
+    public Thing get(int i) {
+        return things.get(i);
+    }
+
+    /** Static things that need to `think`. Walls are not included */
+    public List<Thing> thinkers() {
+        return thinkers;
+    }
+
+    /**
+     * Find static things whose bounds overlap the given area.
+     * Results are sorted by index, so test order does not depend on tree layout.
+     * Read results with `resultCount()` and `result(i)`. Results are only valid until the next query.
+     */
+    public int query(double qLeft, double qTop, double qRight, double qBottom) {
+        resultCount = 0;
+        if (nodeCount == 0) return 0;
+
+        int sp = 0;
+        stack[sp++] = 0;
+        while (sp > 0) {
+            int n = stack[--sp];
+            if (maxX[n] < qLeft || minX[n] > qRight || maxY[n] < qTop || minY[n] > qBottom) continue;
+
+            if (count[n] > 0) {
+                int end = start[n] + count[n];
+                for (int i = start[n]; i < end; i++) {
+                    int idx = order[i];
+                    Thing t = things.get(idx);
+                    if (edgeRight(t) < qLeft || edgeLeft(t) > qRight) continue;
+                    if (edgeBottom(t) < qTop || edgeTop(t) > qBottom) continue;
+
+                    if (resultCount >= results.length) results = grow(results);
+                    results[resultCount++] = idx;
+                }
+            } else {
+                if (sp + 2 > stack.length) stack = grow(stack);
+                stack[sp++] = left[n];
+                stack[sp++] = left[n] + 1;
+            }
+        }
+
+        // insertion sort, as result sets are small
+        for (int i = 1; i < resultCount; i++) {
+            int v = results[i];
+            int j = i - 1;
+            while (j >= 0 && results[j] > v) {
+                results[j + 1] = results[j];
+                j--;
+            }
+            results[j + 1] = v;
+        }
+        return resultCount;
+    }
+
+    /** Number of results from last query */
+    public int resultCount() {
+        return resultCount;
+    }
+
+    /** Get a result from the last query */
+    public Thing result(int i) {
+        return things.get(results[i]);
+    }
+
+    private void rebuild() {
+        int n = things.size();
+
+        thinkers.clear();
+        for (int i = 0; i < n; i++) {
+            Thing t = things.get(i);
+            if (t.thinks) thinkers.add(t);
+        }
+
+        // A binary tree with leaves of at least one item has fewer than 2n nodes
+        int maxNodes = Math.max(1, 2 * n);
+        minX = new double[maxNodes];
+        minY = new double[maxNodes];
+        maxX = new double[maxNodes];
+        maxY = new double[maxNodes];
+        left = new int[maxNodes];
+        start = new int[maxNodes];
+        count = new int[maxNodes];
+        nodeCount = 0;
+
+        order = new int[n];
+        centreX = new double[n];
+        centreY = new double[n];
+        for (int i = 0; i < n; i++) {
+            Thing t = things.get(i);
+            order[i] = i;
+            centreX[i] = (edgeLeft(t) + edgeRight(t)) / 2.0;
+            centreY[i] = (edgeTop(t) + edgeBottom(t)) / 2.0;
+        }
+
+        if (n > 0) {
+            nodeCount = 1;
+            buildNode(0, 0, n);
+        }
+
+        centreX = null;
+        centreY = null;
+    }
+
+    private void buildNode(int node, int from, int to) {
+        double l = Double.MAX_VALUE, t = Double.MAX_VALUE, r = -Double.MAX_VALUE, b = -Double.MAX_VALUE;
+        double cl = Double.MAX_VALUE, ct = Double.MAX_VALUE, cr = -Double.MAX_VALUE, cb = -Double.MAX_VALUE;
+        for (int i = from; i < to; i++) {
+            int idx = order[i];
+            Thing th = things.get(idx);
+            l = Math.min(l, edgeLeft(th));
+            t = Math.min(t, edgeTop(th));
+            r = Math.max(r, edgeRight(th));
+            b = Math.max(b, edgeBottom(th));
+
+            cl = Math.min(cl, centreX[idx]);
+            ct = Math.min(ct, centreY[idx]);
+            cr = Math.max(cr, centreX[idx]);
+            cb = Math.max(cb, centreY[idx]);
+        }
+        minX[node] = l;
+        minY[node] = t;
+        maxX[node] = r;
+        maxY[node] = b;
+
+        int n = to - from;
+        if (n <= LEAF_SIZE) {
+            start[node] = from;
+            count[node] = n;
+            return;
+        }
+
+        // split at the median centre, along the longest axis
+        boolean horz = (cr - cl) >= (cb - ct);
+        int mid = from + n / 2;
+        select(from, to - 1, mid, horz ? centreX : centreY);
+
+        int children = nodeCount;
+        nodeCount += 2;
+        left[node] = children;
+        count[node] = 0;
+
+        buildNode(children, from, mid);
+        buildNode(children + 1, mid, to);
+    }
+
+    /** Partially sort `order[lo..hi]` so the item at `k` is in its sorted place (quick-select) */
+    private void select(int lo, int hi, int k, double[] key) {
+        while (hi > lo) {
+            double pivot = key[order[(lo + hi) >>> 1]];
+            int i = lo, j = hi;
+            while (i <= j) {
+                while (key[order[i]] < pivot) i++;
+                while (key[order[j]] > pivot) j--;
+                if (i <= j) {
+                    int tmp = order[i];
+                    order[i] = order[j];
+                    order[j] = tmp;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) hi = j;
+            else if (k >= i) lo = i;
+            else return;
+        }
+    }
+
+    private static double edgeLeft(Thing t) {return Math.min(t.left(), t.right()) - BroadPhaseGrid.PADDING;}
+    private static double edgeRight(Thing t) {return Math.max(t.left(), t.right()) + BroadPhaseGrid.PADDING;}
+    private static double edgeTop(Thing t) {return Math.min(t.top(), t.bottom()) - BroadPhaseGrid.PADDING;}
+    private static double edgeBottom(Thing t) {return Math.max(t.top(), t.bottom()) + BroadPhaseGrid.PADDING;}
+
+    private static int[] grow(int[] src) {
+        int[] dst = new int[src.length * 2];
+        System.arraycopy(src, 0, dst, 0, src.length);
+        return dst;
+    }
+}
@@ -0,0 +1,88 @@
+package com.ieb.toad.world.core;
+
+/**
+ * Swept shape tests for continuous collision detection.
+ * Times are fractions of the movement, 0..1. Anything over 1 is a miss.
+ */
+public final class Sweep {
+    /** Returned when there is no impact during the movement */
+    public static final double MISS = 1000.0;
+
+    private Sweep() {}
+
+    /**
+     * Time when a circle at (x,y) of radius r, moving by (dx,dy), first touches a box.
+     * Returns MISS if the circle doesn't reach the box, or is already touching it at the start.
+     */
+    public static double circleVsBox(double x, double y, double dx, double dy, double r,
+                                     double left, double top, double right, double bottom) {
+        // already touching: leave this to normal impact tests
+        double nx = clamp(x, left, right);
+        double ny = clamp(y, top, bottom);
+        if (sqr(x - nx) + sqr(y - ny) <= r * r) return MISS;
+
+        // ray against the box grown by the radius
+        double tMin = 0.0, tMax = 1.0;
+        if (Math.abs(dx) < 1e-9) {
+            if (x < left - r || x > right + r) return MISS;
+        } else {
+            double t1 = (left - r - x) / dx;
+            double t2 = (right + r - x) / dx;
+            tMin = Math.max(tMin, Math.min(t1, t2));
+            tMax = Math.min(tMax, Math.max(t1, t2));
+        }
+        if (Math.abs(dy) < 1e-9) {
+            if (y < top - r || y > bottom + r) return MISS;
+        } else {
+            double t1 = (top - r - y) / dy;
+            double t2 = (bottom + r - y) / dy;
+            tMin = Math.max(tMin, Math.min(t1, t2));
+            tMax = Math.min(tMax, Math.max(t1, t2));
+        }
+        if (tMin > tMax) return MISS;
+
+        // If we hit a face, we're done. If we hit a corner of the grown box, the real shape is rounded there
+        double hx = x + dx * tMin;
+        double hy = y + dy * tMin;
+        double cx = clamp(hx, left, right);
+        double cy = clamp(hy, top, bottom);
+        if (cx == hx || cy == hy) return tMin;
+
+        return circleVsPoint(x, y, dx, dy, r, cx, cy);
+    }
+
+    /**
+     * Time when a circle at (x,y) of radius r, moving by (dx,dy), first touches a still circle.
+     * Returns MISS if the circles don't meet, or are already touching at the start.
+     */
+    public static double circleVsCircle(double x, double y, double dx, double dy, double r,
+                                        double cx, double cy, double cr) {
+        return circleVsPoint(x, y, dx, dy, r + cr, cx, cy);
+    }
+
+    /** Time when a circle moving by (dx,dy) first touches a point */
+    private static double circleVsPoint(double x, double y, double dx, double dy, double r, double px, double py) {
+        double fx = x - px;
+        double fy = y - py;
+        double c = (fx * fx) + (fy * fy) - (r * r);
+        if (c <= 0) return MISS; // already touching
+
+        double a = (dx * dx) + (dy * dy);
+        double b = (fx * dx) + (fy * dy);
+        if (b >= 0 || a < 1e-12) return MISS; // moving apart, or not moving
+
+        double disc = (b * b) - (a * c);
+        if (disc < 0) return MISS;
+
+        double t = (-b - Math.sqrt(disc)) / a;
+        return (t >= 0 && t <= 1.0) ? t : MISS;
+    }
+
+    private static double clamp(double v, double min, double max) {
+        return Math.min(Math.max(v, min), max);
+    }
+
+    private static double sqr(double v) {
+        return v * v;
+    }
+}
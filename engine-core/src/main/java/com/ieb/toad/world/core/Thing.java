@@ -0,0 +1,351 @@
+package com.ieb.toad.world.core;
+
+/** Represents a physical object in a level.
+ * Masses are kg, distances are 32px per metre. Time is seconds. */
+public abstract class Thing {
+
+    /** Returned by `think`. This thing should be removed from the simulation */
+    public static final int REMOVE = -1;
+
+    /** Returned by `think`. This thing should remain in the simulation */
+    public static final int KEEP = 0;
+
+    /** Returned by `preImpactTest` if this thing would like to interact with another */
+    public static final boolean DO_IMPACT = true;
+
+    /** Returned by `preImpactTest` if this thing should not interact with the other */
+    public static final boolean SKIP_IMPACT = false;
+
+    /** Visual layer for drawing. Default is zero, Toad is -1.
+     * Higher values draw over lower values. Does not need to be unique.
+     * Read when the thing is added to the level. */
+    public int layer = 0;
+
+    /** Type of this thing. Should be one of `world.Collision` */
+    public int type;
+
+    /** If true, `impactResolve` is called for every nearby thing each simulator step,
+     * with `impacted` false if they didn't touch. Otherwise it is only called on impact. */
+    public boolean proximityEvents = false;
+
+    /** If true, the simulator keeps a `Contact` for each thing this touches, in `SimulationManager.contacts()`.
+     * Constraints can read these rather than re-running impact tests. */
+    public boolean trackContacts = false;
+
+    /** If true, `think` is called `thinkRate` times a second. Set this in the constructor of things that override `think`.
+     * Only read when the thing is added to a level. */
+    public boolean thinks = false;
+
+    /** Default for `thinkRate` */
+    public static final double DEFAULT_THINK_RATE = 1000.0 / Simulator.THINK_MS;
+
+    /** Times per second this thing would like to `think`. Rounded to whole simulator steps.
+     * Things off screen think less often. See `ThinkScheduler` */
+    public double thinkRate = DEFAULT_THINK_RATE;
+
+    /** Types this thing can interact with, as `Collision` flags.
+     * A pair of things is only impact tested if each one's type has a flag in the other's mask.
+     * This is checked before `preImpactTest`, so use it for pairs that should never interact.
+     * A thing with type `Collision.NULL` matches every mask, so by default it interacts with everything. */
+    public int collidesWith = Collision.ANY;
+
+    /** If true, this thing never moves. Set in the constructor, before adding to a level.
+     * Immovable things are held in the level's static geometry: they are not integrated,
+     * and are only tested against things that can move. */
+    public boolean immovable = false;
+
+    /** Default value for gravity fraction */
+    public static final double DEFAULT_GRAVITY = 1.0;
+
+    /** Gravity ratio: 0.0 to 1.0; At zero, object floats, at 1.0 object falls normally. */
+    public double gravity = DEFAULT_GRAVITY;
+
+    /** Default value for drag */
+    public static final double DEFAULT_DRAG = 0.01;
+
+    /** Drag coefficient. 0.0 = no drag, 1.0 = total stop. Drag is very strong, and should normally be under 0.1 */
+    public double drag = DEFAULT_DRAG;
+
+    /** Default value for elasticity */
+    public static final double DEFAULT_ELASTICITY = 0.9;
+
+    /** Energy returned in a bounce: 0.0 to 1.0; At zero, objects stop immediately, at 1.0 objects bounce forever.
+     * 0.1 is good for players/enemies; 0.25 is good for thrown stuff. */
+    public double elasticity = DEFAULT_ELASTICITY;
+
+    /** Default value for terminal velocity */
+    public static final double DEFAULT_TERMINAL_VELOCITY = 3000.0;
+
+    /** Maximum allowed velocity. If requested or simulated velocity goes above this, we will restrict it. */
+    public double terminalVelocity = DEFAULT_TERMINAL_VELOCITY;
+
+    /** Radius of hit circle. If radius is negative, there is no inter-object collision */
+    public double radius;
+
+    /** relative mass of object */
+    public double mass = 1.0;
+
+    /** X position of the object */
+    public double px;
+
+    /** Y position of the object */
+    public double py;
+
+    /** Position before the last simulator step. Used to draw between steps. NaN until first step */
+    double lastX = Double.NaN, lastY = Double.NaN;
+
+    /** Distance moved in one step, over which we don't draw between steps.
+     * Anything that moves further was placed directly (doors, checkpoints, spawning) */
+    private static final double SNAP_DISTANCE = 64.0;
+
+    /** X velocity of the object */
+    public double vx;
+
+    /** Y velocity of the object */
+    public double vy;
+
+    /** X acceleration of the object */
+    public double ax;
+
+    /** Y acceleration of the object */
+    public double ay;
+
+    /** X acceleration last iteration */
+    protected double a0x;
+
+    /** Y acceleration last iteration */
+    protected double a0y;
+
+    /** Constraints linked to this Thing, in the first `constraintCount` places.
+     * This is for reference; constraints are applied from the Simulator
+     * using the level's complete constraint list.
+     */
+    private Constraint[] constraints;
+    private int constraintCount;
+
+    /** Bit set for each `Constraint.kind` linked to this Thing */
+    private int constraintKinds;
+
+    /** Position in the simulation list. Set by the broad-phase each iteration */
+    int simIndex;
+
+    /** Last broad-phase query that found this thing. Used to skip duplicates */
+    int queryStamp;
+
+    /** True if the simulator has parked this thing. See `isSleeping()` */
+    boolean sleeping;
+
+    /** Seconds this thing has been at rest. Used by the simulator to decide when to sleep */
+    double restTime;
+
+    /** Position where this thing came to rest. While sleeping, where it fell asleep */
+    double restX, restY;
+
+    /** Handle in the level's list of moving things. See `ThingSlots` */
+    long handle = ThingSlots.NO_HANDLE;
+
+    /** Position in the render list, or -1 if not in it, and the layer it was added on. See `RenderList` */
+    int renderSlot = -1, renderLayer;
+
+    // Place in the think schedule. See `ThinkScheduler`
+    int thinkBucket = -1, thinkSlot, thinkStamp;
+    long thinkDue, thinkLast;
+
+    /** [Optional Override]
+     * Perform any AI functions. If `thinks` is set, this is called `thinkRate` times a second, or less often when off screen.
+     * `ms` is the simulation time since this thing last thought.
+     * Should return KEEP or REMOVE */
+    public int think(SimulationManager level, int ms) {return KEEP;}
+
+    /** [Optional Override]
+     * Do any updates before an impact is tested and resolved.
+     * This allows updates to position to make a virtual impact point for complex shapes.
+     * @param other a nearby object
+     * @return true if impact should be run, false if this and other should ignore each other
+     */
+    public boolean preImpactTest(Thing other) {return DO_IMPACT;}
+
+    /** [Optional Override]
+     * You should reset any virtual changes made in `preImpactTest` here.
+     * Only called after `preImpactTest` has been called on this thing.
+     */
+    public void postImpactTest() {
+    }
+
+    /** [Optional Override]
+     * Do any updates after an impact is detected
+     * This allows updates based on virtual impact point for complex shapes.
+     * If this or the other thing has `proximityEvents` set, this is also called
+     * for nearby things that did not impact.
+     *
+     * @param other    a nearby object
+     * @param impacted `true` if this and other made contact
+     */
+    public void impactResolve(SimulationManager level, Thing other, boolean impacted) {
+    }
+
+    /** [Optional Override]
+     * Perform any actions or checks when a constrain is first added
+     */
+    protected void constrainAdded(Constraint c) {}
+
+    /** [Optional Override]
+     * Perform any actions or checks when a constrain is first removed
+     */
+    protected void constrainRemoved(Constraint c) {}
+
+    /** [Optional Override]
+     * Perform any actions when this thing is removed.
+     * You cannot reverse the removal, but could respawn if needed. */
+    public void despawned(SimulationManager level) {}
+
+    /** Clear motion and simulator state, so a pooled thing can be added to a level again */
+    protected final void resetMotion() {
+        px = py = 0.0;
+        vx = vy = 0.0;
+        ax = ay = 0.0;
+        a0x = a0y = 0.0;
+        lastX = lastY = Double.NaN;
+        sleeping = false;
+        restTime = 0.0;
+        restX = restY = 0.0;
+    }
+
+
+    protected final double clamp(double v, double min, double max) {
+        return Math.min(Math.max(v, min), max);
+    }
+
+
+    /** Returns true only if this thing COULD land on the other */
+    public final boolean canLandOnTop(Thing other){
+        double bottomOfThis = py + radius - (Simulator.h * vy) - 1;
+        double topOfOther = other.py - other.radius + (Simulator.h * other.vy) + 1;
+        return bottomOfThis <= topOfOther;
+    }
+
+    /** [Optional Override]
+     * bottom most edge. Edges are used to find nearby things for impact tests,
+     * so things with a hit box should override all four to cover the box. */
+    public double bottom(){return py + radius;}
+    /** [Optional Override]
+     * top most edge */
+    public double top(){return py - radius;}
+    /** [Optional Override]
+     * right most edge */
+    public double right(){return px + radius;}
+    /** [Optional Override]
+     * left most edge */
+    public double left(){return px - radius;}
+
+    /** Handle for this thing while it is in the simulation. Use to hold on to a thing that may be removed */
+    public final long handle() {
+        return handle;
+    }
+
+    /** Returns true if this thing has been at rest for a while, and has been parked by the simulator.
+     * Sleeping things still think, but are not moved or impact tested until they wake. */
+    public final boolean isSleeping() {
+        return sleeping;
+    }
+
+    /** Wake this thing if it is sleeping. It will be simulated again from the next iteration.
+     * Things also wake when hit, when a constraint is linked, when moved or given a velocity or acceleration,
+     * and when something they touch moves away or is removed. */
+    public final void wake() {
+        sleeping = false;
+        restTime = 0.0;
+    }
+
+    /** Link a constraint to this Thing, for use with tracking */
+    public final void linkConstraint(Constraint c) {
+        wake();
+        if (constraints == null) constraints = new Constraint[4];
+        for (int i = 0; i < constraintCount; i++) {
+            if (constraints[i] == c) return; // already linked
+        }
+        if (constraintCount >= constraints.length) {
+            Constraint[] bigger = new Constraint[constraints.length * 2];
+            System.arraycopy(constraints, 0, bigger, 0, constraintCount);
+            constraints = bigger;
+        }
+        constraints[constraintCount++] = c;
+        constraintKinds |= 1 << c.kind;
+        constrainAdded(c);
+    }
+
+    /** Remove a link to a constraint to this Thing, for use with tracking */
+    public final void unlinkConstraint(Constraint c) {
+        for (int i = 0; i < constraintCount; i++) {
+            if (constraints[i] != c) continue;
+
+            // close the gap, keeping link order
+            constraintCount--;
+            System.arraycopy(constraints, i + 1, constraints, i, constraintCount - i);
+            constraints[constraintCount] = null;
+
+            constraintKinds = 0;
+            for (int j = 0; j < constraintCount; j++) constraintKinds |= 1 << constraints[j].kind;
+
+            constrainRemoved(c);
+            return;
+        }
+    }
+
+    /** Returns true if there are any constraints linked to this thing */
+    public final boolean anyConstraints(){
+        return constraintCount > 0;
+    }
+
+    /** Returns true if a constraint of the given kind is linked to this thing. `kind` is one of the `Constraint` kinds */
+    public final boolean hasConstraint(int kind){
+        return (constraintKinds & (1 << kind)) != 0;
+    }
+
+    /** Returns the first linked constraint of the given kind, or null. `kind` is one of the `Constraint` kinds */
+    public final Constraint getConstraint(int kind){
+        if ((constraintKinds & (1 << kind)) == 0) return null;
+        for (int i = 0; i < constraintCount; i++) {
+            if (constraints[i].kind == kind) return constraints[i];
+        }
+        return null;
+    }
+
+    /** Number of constraints linked to this thing */
+    public final int linkedConstraintCount() {
+        return constraintCount;
+    }
+
+    /** Get a linked constraint by position, 0 .. `linkedConstraintCount()`-1, in the order they were linked */
+    public final Constraint linkedConstraint(int i) {
+        return constraints[i];
+    }
+
+    /** X position to draw at, `alpha` of the way from the last step to the current position */
+    public final double drawX(double alpha) {
+        if (!(Math.abs(px - lastX) <= SNAP_DISTANCE)) return px; // also true if lastX is NaN
+        return lastX + (px - lastX) * alpha;
+    }
+
+    /** Y position to draw at, `alpha` of the way from the last step to the current position */
+    public final double drawY(double alpha) {
+        if (!(Math.abs(py - lastY) <= SNAP_DISTANCE)) return py;
+        return lastY + (py - lastY) * alpha;
+    }
+
+    /** get bounds of impact circle */
+    public Aabb boundBox(){
+        return boundBox(new Aabb());
+    }
+
+    /** Set `out` to the bounds of the hit circle, and return it. Use this in the game loop to avoid allocation */
+    public Aabb boundBox(Aabb out){
+        out.set((int) (px-radius), (int) (py-radius), (int) (px+radius), (int) (py+radius));
+        return out;
+    }
+
+    /** accurate current speed */
+    public double speed() {
+        return Math.sqrt((vx*vx) + (vy*vy));
+    }
+}
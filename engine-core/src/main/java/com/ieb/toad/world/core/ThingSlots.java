@@ -0,0 +1,122 @@
+package com.ieb.toad.world.core;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Things in the simulation, packed for fast iteration.
+ * Things are kept in the order they were added, which sets the order pairs are solved in.
+ * Adding and removing are constant time. Removed things leave a gap, which is closed up, keeping order,
+ * the next time the list is read by position.
+ * <p>
+ * Each thing gets a handle when added. A handle finds its thing while it is in the list,
+ * and `find(handle)` returns null once it has been removed, even if its slot has been reused.
+ */
+public class ThingSlots extends AbstractList<Thing> implements RandomAccess {
+    /** Handle for a thing that is not in a list */
+    public static final long NO_HANDLE = -1L;
+
+    private Thing[] things = new Thing[64]; // packed, in the first `count` places
+    private int[] thingSlot = new int[64]; // slot of each packed thing
+    private int count; // places used, including gaps
+    private int gaps;
+
+    // Slots are stable. Each has a generation, bumped when its thing is removed, and the index of its thing.
+    private int[] generation = new int[64];
+    private int[] index = new int[64];
+    private int[] freeSlots = new int[64];
+    private int freeCount;
+    private int slotCount;
+
+    /** Add a thing to the end of the list, and give it a handle. Returns false if it is already in the list */
+    @Override
+    public boolean add(Thing t) {
+        if (find(t.handle) == t) return false;
+
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (slotCount >= generation.length) {
+                generation = Arrays.copyOf(generation, slotCount * 2);
+                index = Arrays.copyOf(index, slotCount * 2);
+            }
+            slot = slotCount++;
+        }
+
+        if (count >= things.length && gaps > 0) compact();
+        if (count >= things.length) {
+            things = Arrays.copyOf(things, count * 2);
+            thingSlot = Arrays.copyOf(thingSlot, count * 2);
+        }
+        things[count] = t;
+        thingSlot[count] = slot;
+        index[slot] = count;
+        count++;
+
+        t.handle = ((long) generation[slot] << 32) | slot;
+        return true;
+    }
+
+    /** Remove a thing. Its handle stops working. Returns false if it was not in the list */
+    @Override
+    public boolean remove(Object o) {
+        if (!(o instanceof Thing)) return false;
+        Thing t = (Thing) o;
+        if (find(t.handle) != t) return false;
+
+        int slot = (int) t.handle;
+        int i = index[slot];
+
+        things[i] = null;
+        gaps++;
+
+        generation[slot]++;
+        if (freeCount >= freeSlots.length) freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        freeSlots[freeCount++] = slot;
+        t.handle = NO_HANDLE;
+        return true;
+    }
+
+    /** Find a thing by handle. Returns null if it has been removed */
+    public Thing find(long handle) {
+        if (handle == NO_HANDLE) return null;
+        int slot = (int) handle;
+        if (slot < 0 || slot >= slotCount || generation[slot] != (int) (handle >>> 32)) return null;
+        return things[index[slot]];
+    }
+
+    /** Get a thing by position, in the order they were added. Positions change when things are removed */
+    @Override
+    public Thing get(int i) {
+        if (gaps > 0) compact();
+        return things[i];
+    }
+
+    @Override
+    public int size() {
+        return count - gaps;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return (o instanceof Thing) && find(((Thing) o).handle) == o;
+    }
+
+    /** Close up gaps left by removed things, keeping order */
+    private void compact() {
+        int w = 0;
+        for (int i = 0; i < count; i++) {
+            Thing t = things[i];
+            if (t == null) continue;
+            things[w] = t;
+            thingSlot[w] = thingSlot[i];
+            index[thingSlot[w]] = w;
+            w++;
+        }
+        Arrays.fill(things, w, count, null);
+        count = w;
+        gaps = 0;
+    }
+}
@@ -0,0 +1,188 @@
+package com.ieb.toad.world.core;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Decides which things think in each simulator step.
+ * Only things that override `think` are scheduled. Each thinks at its own `thinkRate`,
+ * slowed down when it is off screen or far from it. New things are put in the least busy
+ * step, so about the same number think in each step rather than all at once.
+ */
+public class ThinkScheduler {
+    /** Slow-down for things that are off screen */
+    public static final int OFF_SCREEN_SLOWDOWN = 4;
+
+    /** Slow-down for things more than `FAR_DISTANCE` from the screen */
+    public static final int FAR_SLOWDOWN = 16;
+
+    /** Distance from the edge of the screen, in pixels, at which things are 'far' */
+    public static final double FAR_DISTANCE = 2048.0;
+
+    // One bucket per step, used round-robin. Things due more than a lap ahead wait in their bucket.
+    private static final int WHEEL = 128; // power of two
+    private final Thing[][] buckets = new Thing[WHEEL][];
+    private final int[] bucketCount = new int[WHEEL];
+
+    private Thing[] due = new Thing[32]; // things thinking in the current step
+    private long step; // steps run so far
+    private int syncStamp; // marks things found by the last `sync`
+    private int size;
+
+    // Stats for the frame being run, and the last whole frame
+    private int frameThinks, framePeak;
+    private long frameNanos;
+    private int lastThinks, lastPeak;
+    private long lastNanos;
+
+    public ThinkScheduler() {
+        for (int i = 0; i < WHEEL; i++) buckets[i] = new Thing[8];
+    }
+
+    /**
+     * Bring the schedule up to date with the things in the simulation.
+     * Things that override `think` are added, and things no longer present are removed.
+     */
+    public void sync(List<Thing> objects, List<Thing> thinkers) {
+        syncStamp++;
+        for (int i = 0; i < objects.size(); i++) mark(objects.get(i));
+        for (int i = 0; i < thinkers.size(); i++) mark(thinkers.get(i));
+
+        for (int b = 0; b < WHEEL; b++) {
+            Thing[] bucket = buckets[b];
+            for (int i = bucketCount[b] - 1; i >= 0; i--) {
+                if (bucket[i].thinkStamp != syncStamp) remove(bucket[i]);
+            }
+        }
+    }
+
+    /**
+     * Run one simulator step: things due in this step think.
+     * Things that return `REMOVE` are added to `dead`, and are not scheduled again.
+     * Things unscheduled by an earlier think in the same step don't think.
+     * @return number of things that thought
+     */
+    public int step(SimulationManager level, List<Thing> dead) {
+        step++;
+        int b = (int) (step & (WHEEL - 1));
+
+        // collect first, as thinking things move to other buckets
+        int count = 0;
+        Thing[] bucket = buckets[b];
+        for (int i = 0; i < bucketCount[b]; i++) {
+            if (bucket[i].thinkDue != step) continue; // due on a later lap
+            if (count >= due.length) due = Arrays.copyOf(due, due.length * 2);
+            due[count++] = bucket[i];
+        }
+        if (count == 0) return 0;
+
+        long start = System.nanoTime();
+        int thought = 0;
+        for (int i = 0; i < count; i++) {
+            Thing t = due[i];
+            due[i] = null;
+            if (t.thinkBucket < 0) continue; // removed by an earlier think in this step
+            thought++;
+
+            int ms = (int) (stepTime(step) - stepTime(t.thinkLast));
+            t.thinkLast = step;
+
+            remove(t);
+            if (t.think(level, ms) == Thing.REMOVE) {
+                dead.add(t);
+            } else {
+                insert(t, step + interval(t, level));
+            }
+        }
+        frameNanos += System.nanoTime() - start;
+        frameThinks += thought;
+        framePeak = Math.max(framePeak, thought);
+        return thought;
+    }
+
+    /** Stop scheduling a thing. It is scheduled again by the next `sync` if it is still in the simulation */
+    public void unschedule(Thing t) {
+        remove(t);
+    }
+
+    /** Start a new frame for stats. Called once per `Simulator.solve` */
+    public void frame() {
+        lastThinks = frameThinks;
+        lastPeak = framePeak;
+        lastNanos = frameNanos;
+        frameThinks = 0;
+        framePeak = 0;
+        frameNanos = 0;
+    }
+
+    /** Number of thinks in the last frame */
+    public int thinksPerFrame() {
+        return lastThinks;
+    }
+
+    /** Most thinks in a single step in the last frame */
+    public int peakThinksPerStep() {
+        return lastPeak;
+    }
+
+    /** Time spent thinking in the last frame, in ms */
+    public double thinkMsPerFrame() {
+        return lastNanos / 1.0e6;
+    }
+
+    /** Number of things scheduled */
+    public int size() {
+        return size;
+    }
+
+    /** Steps between thinks for a thing, from its rate and where it is relative to the screen */
+    private static int interval(Thing t, SimulationManager level) {
+        int steps = Math.max(1, (int) Math.round(Simulator.N / t.thinkRate));
+        if (level.isOnScreen(t)) return steps;
+        return steps * (level.screenDistance(t) > FAR_DISTANCE ? FAR_SLOWDOWN : OFF_SCREEN_SLOWDOWN);
+    }
+
+    /** Simulation time at the start of a step, in whole ms. Differences of these don't drift */
+    private static long stepTime(long s) {
+        return (long) (s * Simulator.STEP_MS);
+    }
+
+    private void mark(Thing t) {
+        if (!t.thinks) return;
+        t.thinkStamp = syncStamp;
+        if (t.thinkBucket >= 0) return; // already scheduled
+
+        // First think is in the least busy step within one interval
+        int steps = Math.max(1, (int) Math.round(Simulator.N / t.thinkRate));
+        long best = step + 1;
+        for (long s = step + 2; s <= step + Math.min(steps, WHEEL); s++) {
+            if (bucketCount[(int) (s & (WHEEL - 1))] < bucketCount[(int) (best & (WHEEL - 1))]) best = s;
+        }
+        t.thinkLast = step;
+        insert(t, best);
+    }
+
+    private void insert(Thing t, long dueStep) {
+        int b = (int) (dueStep & (WHEEL - 1));
+        if (bucketCount[b] >= buckets[b].length) buckets[b] = Arrays.copyOf(buckets[b], buckets[b].length * 2);
+        t.thinkDue = dueStep;
+        t.thinkBucket = b;
+        t.thinkSlot = bucketCount[b];
+        buckets[b][bucketCount[b]++] = t;
+        size++;
+    }
+
+    private void remove(Thing t) {
+        int b = t.thinkBucket;
+        if (b < 0) return;
+
+        // fill the gap with the last thing in the bucket
+        int last = --bucketCount[b];
+        Thing moved = buckets[b][last];
+        buckets[b][t.thinkSlot] = moved;
+        moved.thinkSlot = t.thinkSlot;
+        buckets[b][last] = null;
+        t.thinkBucket = -1;
+        size--;
+    }
+}
@@ -0,0 +1,49 @@
+package com.ieb.toad.world.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class AabbTest {
+    /** Edges follow `android.graphics.Rect`: left and top are inside, right and bottom are just outside */
+    @Test
+    public void containsUsesRectEdgeRules() {
+        Aabb box = new Aabb(10, 20, 30, 40);
+        assertTrue(box.contains(10, 20));
+        assertTrue(box.contains(29, 39));
+        assertFalse(box.contains(30, 39));
+        assertFalse(box.contains(29, 40));
+        assertFalse(box.contains(9, 25));
+    }
+
+    @Test
+    public void boxesSharingAnEdgeDoNotIntersect() {
+        Aabb box = new Aabb(10, 20, 30, 40);
+        assertTrue(box.intersects(29, 39, 50, 50));
+        assertFalse(box.intersects(30, 20, 50, 40)); // right edge
+        assertFalse(box.intersects(10, 40, 30, 60)); // bottom edge
+        assertFalse(box.intersects(0, 0, 10, 20)); // top-left corner
+    }
+
+    @Test
+    public void emptyBoxContainsNothing() {
+        Aabb box = new Aabb();
+        assertTrue(box.isEmpty());
+        assertFalse(box.contains(0, 0));
+
+        box.set(5, 5, 5, 10);
+        assertTrue(box.isEmpty());
+        assertFalse(box.contains(5, 7));
+    }
+
+    @Test
+    public void sizeAndCentre() {
+        Aabb box = new Aabb(10, 20, 30, 41);
+        assertEquals(20, box.width());
+        assertEquals(21, box.height());
+        assertEquals(20, box.centerX());
+        assertEquals(30, box.centerY());
+    }
+}
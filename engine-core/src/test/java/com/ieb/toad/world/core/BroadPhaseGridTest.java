@@ -0,0 +1,92 @@
+package com.ieb.toad.world.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class BroadPhaseGridTest {
+    /** Every pair whose padded bounds overlap must be found, whatever the grid's cells and hash collisions do */
+    @Test
+    public void findsSamePairsAsBruteForce() {
+        Random random = new Random(1);
+        List<Thing> things = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            // spread over negative and positive co-ords, with some bodies big enough to go in the oversize list
+            double r = (i % 50 == 0) ? 700 : 4 + random.nextDouble() * 40;
+            Ball ball = new Ball(random.nextDouble() * 6000 - 3000, random.nextDouble() * 6000 - 3000, r);
+            ball.vx = random.nextGaussian() * 400;
+            ball.vy = random.nextGaussian() * 400;
+            things.add(ball);
+        }
+
+        BroadPhaseGrid grid = new BroadPhaseGrid();
+        grid.rebuild(things);
+
+        int expectedPairs = 0;
+        for (int i = 0; i < things.size(); i++) {
+            Thing a = things.get(i);
+            assertEquals(i, a.simIndex);
+            double[] box = padded(a);
+
+            int count = grid.query(box[0], box[1], box[2], box[3], i);
+            Set<Thing> found = new HashSet<>();
+            int lastIndex = i;
+            for (int k = 0; k < count; k++) {
+                Thing t = grid.result(k);
+                assertTrue("results after `afterIndex`, sorted, no repeats", t.simIndex > lastIndex);
+                lastIndex = t.simIndex;
+                found.add(t);
+            }
+
+            for (int j = i + 1; j < things.size(); j++) {
+                Thing b = things.get(j);
+                if (!overlaps(box, padded(b))) continue;
+                expectedPairs++;
+                assertTrue("pair " + i + "," + j + " missing", found.contains(b));
+            }
+        }
+        assertTrue("scene should have overlapping pairs", expectedPairs > 100);
+    }
+
+    /** Rebuilding clears old contents */
+    @Test
+    public void rebuildForgetsRemovedThings() {
+        List<Thing> things = new ArrayList<>();
+        things.add(new Ball(0, 0, 10));
+        things.add(new Ball(5, 0, 10));
+
+        BroadPhaseGrid grid = new BroadPhaseGrid();
+        grid.rebuild(things);
+        assertEquals(2, grid.query(-20, -20, 20, 20, -1));
+
+        things.remove(0);
+        grid.rebuild(things);
+        assertEquals(1, grid.query(-20, -20, 20, 20, -1));
+        assertEquals(things.get(0), grid.result(0));
+    }
+
+    /** Bounds as the grid pads them in `rebuild` */
+    private static double[] padded(Thing t) {
+        double pad = BroadPhaseGrid.PADDING + (Math.abs(t.vx) + Math.abs(t.vy)) * Simulator.h;
+        return new double[]{t.left() - pad, t.top() - pad, t.right() + pad, t.bottom() + pad};
+    }
+
+    private static boolean overlaps(double[] a, double[] b) {
+        return a[0] <= b[2] && b[0] <= a[2] && a[1] <= b[3] && b[1] <= a[3];
+    }
+
+    private static class Ball extends Thing {
+        Ball(double x, double y, double r) {
+            px = x;
+            py = y;
+            radius = r;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.ieb.toad.world.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class CastTest {
+    private static final double EPSILON = 1e-9;
+
+    private TestWorld world;
+    private TestWorld.Wall wall; // x 500..520, full height
+    private Thing creep; // radius 20 at 300,300
+    private final CastHit hit = new CastHit();
+
+    @Before
+    public void setUp() {
+        world = new TestWorld();
+        wall = world.add(new TestWorld.Wall(500, 0, 20, 1000));
+        creep = world.add(new TestWorld.Ball(300, 300, 20, Collision.CREEP));
+        creep.gravity = 0.0;
+        world.step(); // index things for queries
+    }
+
+    @Test
+    public void rayHitsBox() {
+        assertTrue(world.raycast(100, 500, 900, 500, Collision.ANY, hit));
+        assertSame(wall, hit.thing);
+        assertEquals(0.5, hit.fraction, EPSILON);
+        assertEquals(500, hit.x, EPSILON);
+        assertEquals(500, hit.y, EPSILON);
+        assertEquals(-1, hit.normalX, EPSILON);
+        assertEquals(0, hit.normalY, EPSILON);
+    }
+
+    @Test
+    public void rayHitsCircle() {
+        assertTrue(world.raycast(300, 0, 300, 1000, Collision.ANY, hit));
+        assertSame(creep, hit.thing);
+        assertEquals(0.28, hit.fraction, EPSILON); // top of the circle at y=280
+        assertEquals(280, hit.y, EPSILON);
+        assertEquals(0, hit.normalX, EPSILON);
+        assertEquals(-1, hit.normalY, EPSILON);
+    }
+
+    @Test
+    public void rayHitsNearestThing() {
+        assertTrue(world.raycast(0, 300, 1000, 300, Collision.ANY, hit));
+        assertSame(creep, hit.thing);
+        assertEquals(0.28, hit.fraction, EPSILON);
+
+        // the other way, the wall is first
+        assertTrue(world.raycast(1000, 300, 0, 300, Collision.ANY, hit));
+        assertSame(wall, hit.thing);
+        assertEquals(0.48, hit.fraction, EPSILON);
+        assertEquals(1, hit.normalX, EPSILON);
+    }
+
+    @Test
+    public void circleCastTouchesEarlierThanRay() {
+        assertTrue(world.circleCast(100, 500, 900, 500, 10, Collision.ANY, hit));
+        assertSame(wall, hit.thing);
+        assertEquals((490.0 - 100.0) / 800.0, hit.fraction, EPSILON);
+        assertEquals(490, hit.x, EPSILON);
+        assertEquals(-1, hit.normalX, EPSILON);
+
+        assertTrue(world.circleCast(300, 0, 300, 1000, 10, Collision.ANY, hit));
+        assertSame(creep, hit.thing);
+        assertEquals(270, hit.y, EPSILON);
+        assertEquals(-1, hit.normalY, EPSILON);
+    }
+
+    @Test
+    public void missClearsHit() {
+        assertTrue(world.raycast(100, 500, 900, 500, Collision.ANY, hit));
+
+        assertFalse(world.raycast(0, 100, 400, 100, Collision.ANY, hit)); // passes above the creep
+        assertFalse(hit.hit());
+        assertNull(hit.thing);
+
+        assertFalse("stops short", world.raycast(100, 500, 450, 500, Collision.ANY, hit));
+        assertFalse("misses by less than its radius", world.circleCast(300, 200, 700, 200, 15, Collision.CREEP, hit));
+    }
+
+    /** Things the cast starts inside, or touching, are ignored, so a thing can cast from its own position */
+    @Test
+    public void startInsideIsIgnored() {
+        assertTrue(world.raycast(300, 300, 900, 300, Collision.ANY, hit));
+        assertSame(wall, hit.thing);
+
+        assertTrue(world.circleCast(300, 300, 900, 300, 10, Collision.ANY, hit));
+        assertSame(wall, hit.thing);
+
+        assertFalse(world.raycast(510, 300, 510, 900, Collision.ANY, hit)); // inside the wall
+    }
+
+    @Test
+    public void maskFiltersThings() {
+        assertTrue(world.raycast(0, 300, 1000, 300, Collision.WALL, hit));
+        assertSame("passes through the creep", wall, hit.thing);
+
+        assertTrue(world.raycast(0, 300, 1000, 300, Collision.CREEP | Collision.PLAYER, hit));
+        assertSame(creep, hit.thing);
+
+        assertFalse(world.raycast(0, 300, 1000, 300, Collision.BULLET, hit));
+    }
+
+    /** Sleeping things are still found */
+    @Test
+    public void findsSleepers() {
+        TestWorld world = new TestWorld();
+        world.add(new TestWorld.Wall(0, 500, 1000, 40));
+        Thing ball = world.add(new TestWorld.Ball(500, 484, 16, Collision.CREEP));
+        world.run(2.0);
+        assertTrue(ball.isSleeping());
+
+        assertTrue(world.raycast(0, 484, 1000, 484, Collision.CREEP, hit));
+        assertSame(ball, hit.thing);
+        assertEquals(484, hit.x, EPSILON);
+    }
+}
@@ -0,0 +1,81 @@
+package com.ieb.toad.world.core;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+public class CollisionIslandsTest {
+    private static final int THINGS = 2000, PAIRS = 6000;
+
+    /**
+     * Solving on worker threads must give exactly the same result as solving every pair in order on one thread.
+     * Each pair mixes its index into both things' state, so any change in the order a thing's pairs are
+     * solved in, a missed pair, or a pair solved twice, changes the result.
+     */
+    @Test
+    public void parallelMatchesSerial() {
+        Random random = new Random(3);
+        int[] idA = new int[PAIRS], idB = new int[PAIRS];
+        for (int p = 0; p < PAIRS; p++) {
+            // mostly local pairs, so there are many islands, with a few long links to join some up
+            int a = random.nextInt(THINGS);
+            int b = random.nextInt(10) == 0 ? random.nextInt(THINGS) : Math.min(THINGS - 1, a + 1 + random.nextInt(4));
+            idA[p] = a;
+            idB[p] = b;
+        }
+
+        long[] serial = new long[THINGS];
+        for (int p = 0; p < PAIRS; p++) mix(serial, idA, idB, p);
+
+        for (int threads : new int[]{1, 2, 4, 7}) {
+            long[] parallel = new long[THINGS];
+            CollisionIslands islands = new CollisionIslands(p -> mix(parallel, idA, idB, p), threads);
+            try {
+                islands.solve(idA, idB, PAIRS, THINGS);
+            } finally {
+                islands.shutdown();
+            }
+            assertArrayEquals(serial, parallel);
+        }
+    }
+
+    // Pairs and state for the current step of `reusableAcrossSteps`
+    private int[] stepA, stepB;
+    private long[] stepState;
+
+    /** The same islands object gives the same result step after step, as the pair set changes */
+    @Test
+    public void reusableAcrossSteps() {
+        Random random = new Random(4);
+        CollisionIslands islands = new CollisionIslands(p -> mix(stepState, stepA, stepB, p), 4);
+        try {
+            for (int step = 0; step < 20; step++) {
+                int pairs = 100 + random.nextInt(PAIRS);
+                stepA = new int[pairs];
+                stepB = new int[pairs];
+                for (int p = 0; p < pairs; p++) {
+                    stepA[p] = random.nextInt(THINGS);
+                    stepB[p] = random.nextInt(THINGS);
+                }
+
+                long[] serial = new long[THINGS];
+                for (int p = 0; p < pairs; p++) mix(serial, stepA, stepB, p);
+
+                stepState = new long[THINGS];
+                islands.solve(stepA, stepB, pairs, THINGS);
+                assertArrayEquals(serial, stepState);
+            }
+        } finally {
+            islands.shutdown();
+        }
+    }
+
+    private static void mix(long[] state, int[] idA, int[] idB, int p) {
+        int a = idA[p], b = idB[p];
+        long sa = state[a], sb = state[b];
+        state[a] = sa * 31 + sb + p;
+        state[b] = sb * 37 + sa + p;
+    }
+}
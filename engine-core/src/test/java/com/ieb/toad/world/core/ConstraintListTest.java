@@ -0,0 +1,94 @@
+package com.ieb.toad.world.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class ConstraintListTest {
+    private static class Marker extends Constraint {
+        Marker() {
+            super(CARRYING_OBJECT);
+        }
+
+        @Override
+        public int apply(double timeMs) {
+            return OK;
+        }
+
+        @Override
+        public void unlink() {
+        }
+    }
+
+    /** Removing keeps the order of the constraints that are left */
+    @Test
+    public void removeKeepsOrder() {
+        ConstraintList list = new ConstraintList();
+        Marker[] items = new Marker[5];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = new Marker();
+            list.add(items[i]);
+        }
+
+        assertTrue(list.remove(items[1]));
+        assertTrue(list.remove(items[3]));
+        assertEquals(3, list.size());
+        assertSame(items[0], list.get(0));
+        assertSame(items[2], list.get(1));
+        assertSame(items[4], list.get(2));
+
+        // re-added constraints go on the end
+        list.add(items[1]);
+        assertEquals(4, list.size());
+        assertSame(items[1], list.get(3));
+    }
+
+    @Test
+    public void removeOnlyOnce() {
+        ConstraintList list = new ConstraintList();
+        Marker a = new Marker();
+        list.add(a);
+        list.add(a);
+        assertEquals(1, list.size());
+
+        assertTrue(list.remove(a));
+        assertFalse(list.remove(a));
+        assertEquals(0, list.size());
+
+        assertFalse("never added", list.remove(new Marker()));
+    }
+
+    /** Many adds and removes, checked against a plain list */
+    @Test
+    public void sameOrderAsArrayList() {
+        ConstraintList list = new ConstraintList();
+        List<Constraint> model = new ArrayList<>();
+        Random random = new Random(6);
+
+        for (int i = 0; i < 3000; i++) {
+            if (model.isEmpty() || random.nextInt(3) > 0) {
+                Marker c = new Marker();
+                list.add(c);
+                model.add(c);
+            } else {
+                Constraint c = model.remove(random.nextInt(model.size()));
+                assertTrue(list.remove(c));
+            }
+
+            if (i % 100 == 0) checkSame(model, list);
+        }
+        checkSame(model, list);
+    }
+
+    private static void checkSame(List<Constraint> model, ConstraintList list) {
+        assertEquals(model.size(), list.size());
+        for (int i = 0; i < model.size(); i++) assertSame(model.get(i), list.get(i));
+    }
+}
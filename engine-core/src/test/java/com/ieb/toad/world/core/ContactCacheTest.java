@@ -0,0 +1,57 @@
+package com.ieb.toad.world.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+public class ContactCacheTest {
+    @Test
+    public void removeDropsOnlyThatThingsContacts() {
+        ContactCache cache = new ContactCache();
+        Thing a = ball(), b = ball(), c = ball();
+        cache.touch(a, 0, 0, b, 1, 0);
+        cache.touch(c, 2, 0, a, 0, 0);
+        cache.touch(b, 1, 0, c, 2, 0);
+        Contact ab = cache.find(a, b);
+        assertEquals(3, cache.size());
+
+        cache.remove(a);
+        assertEquals(1, cache.size());
+        assertNull(cache.find(a, b));
+        assertNull(cache.find(a, c));
+        assertNotNull(cache.find(b, c));
+
+        // dropped contacts don't hold on to their things
+        assertNull(ab.a);
+        assertNull(ab.b);
+    }
+
+    /** A thing removed and added again, like a pooled bullet, starts with no contacts */
+    @Test
+    public void removedThingLosesContacts() {
+        TestWorld world = new TestWorld();
+        Thing floor = world.add(new TestWorld.Wall(0, 500, 2000, 40));
+        Thing ball = world.add(new TestWorld.Ball(1000, 500 - 16, 16, Collision.CREEP));
+        ball.trackContacts = true;
+        world.run(0.25);
+        assertNotNull("resting on the floor", world.contacts().find(ball, floor));
+
+        world.removeThing(ball);
+        assertNull(world.contacts().find(ball, floor));
+        assertEquals(0, world.contacts().size());
+
+        ball.px = 1000;
+        ball.py = 100;
+        world.addThing(ball);
+        world.step();
+        assertNull("in the air", world.contacts().find(ball, floor));
+        assertSame(ball, world.findThing(ball.handle()));
+    }
+
+    private static Thing ball() {
+        return new TestWorld.Ball(0, 0, 8, Collision.CREEP);
+    }
+}
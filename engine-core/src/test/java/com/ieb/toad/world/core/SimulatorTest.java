@@ -0,0 +1,255 @@
+package com.ieb.toad.world.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class SimulatorTest {
+    /** Top of the floor in `floorWorld` */
+    private static final int FLOOR = 500;
+
+    @Test
+    public void dragFactorMatchesTunedSteps() {
+        for (double drag : new double[]{0.0, 0.01, 0.1, 0.5, 1.0, 1.5}) {
+            double expected = Math.pow(Math.max(0.0, 1.0 - drag), Simulator.TUNED_STEPS);
+            assertEquals("drag " + drag, expected, Simulator.dragFactor(drag), 1e-15);
+        }
+    }
+
+    @Test
+    public void restingThingFallsAsleep() {
+        TestWorld world = floorWorld();
+        Thing ball = world.add(new TestWorld.Ball(1000, FLOOR - 40, 16, Collision.CREEP));
+
+        world.run(0.25);
+        assertFalse("still settling", ball.isSleeping());
+
+        world.run(2.0);
+        assertTrue(ball.isSleeping());
+        assertEquals("on the floor", FLOOR, ball.bottom(), 2.0);
+    }
+
+    @Test
+    public void sleeperWakesWhenAccelerated() {
+        TestWorld world = floorWorld();
+        Thing sleeper = world.add(new TestWorld.Ball(1000, FLOOR - 16, 16, Collision.CREEP));
+        world.run(2.0);
+        assertTrue(sleeper.isSleeping());
+
+        sleeper.ax = 500;
+        world.step();
+        assertFalse(sleeper.isSleeping());
+        world.run(0.25);
+        assertTrue(sleeper.px > 1000);
+    }
+
+    @Test
+    public void sleeperWakesWhenGivenSmallVelocity() {
+        TestWorld world = floorWorld();
+        Thing sleeper = world.add(new TestWorld.Ball(1000, FLOOR - 16, 16, Collision.CREEP));
+        world.run(2.0);
+        assertTrue(sleeper.isSleeping());
+
+        sleeper.vx = Simulator.SLEEP_SPEED / 4;
+        world.step();
+        assertFalse(sleeper.isSleeping());
+        world.run(0.1);
+        assertTrue(sleeper.px > 1000);
+    }
+
+    @Test
+    public void sleeperWakesWhenMoved() {
+        TestWorld world = floorWorld();
+        Thing sleeper = world.add(new TestWorld.Ball(1000, FLOOR - 16, 16, Collision.CREEP));
+        world.run(2.0);
+        assertTrue(sleeper.isSleeping());
+
+        sleeper.py -= 100; // lifted off the floor
+        world.step();
+        assertFalse(sleeper.isSleeping());
+        world.run(1.0);
+        assertEquals("fell back to the floor", FLOOR, sleeper.bottom(), 2.0);
+    }
+
+    @Test
+    public void sleeperWakesWhenHit() {
+        TestWorld world = floorWorld();
+        Thing sleeper = world.add(new TestWorld.Ball(1000, FLOOR - 16, 16, Collision.CREEP));
+        world.run(2.0);
+        assertTrue(sleeper.isSleeping());
+
+        Thing mover = new TestWorld.Ball(900, FLOOR - 16, 16, Collision.CREEP);
+        mover.vx = 400;
+        world.addThing(mover);
+        world.run(0.5);
+
+        assertFalse(sleeper.isSleeping());
+        assertTrue("pushed along", sleeper.px > 1000);
+    }
+
+    /** A body moving slower than `SLEEP_SPEED` is 'resting', but must still push a sleeper it runs into */
+    @Test
+    public void sleeperWakesWhenPushedSlowly() {
+        TestWorld world = floorWorld();
+        Thing sleeper = world.add(new TestWorld.Ball(1000, FLOOR - 16, 16, Collision.CREEP));
+        Thing pusher = world.add(new TestWorld.Ball(960, FLOOR - 16, 16, Collision.CREEP));
+        world.run(2.0);
+        assertTrue(sleeper.isSleeping());
+        assertTrue(pusher.isSleeping());
+
+        pusher.vx = Simulator.SLEEP_SPEED / 4;
+        world.run(1.0);
+        assertFalse(sleeper.isSleeping());
+        assertTrue("pushed along", sleeper.px > 1001);
+    }
+
+    /** A thing asleep on top of a creep must fall when the creep walks off, even slowly */
+    @Test
+    public void thingRestingOnCreepFallsWhenCreepMovesAway() {
+        TestWorld world = floorWorld();
+        Walker creep = world.add(new Walker(1000, FLOOR - 20, 20));
+        Thing rider = world.add(new TestWorld.Ball(1000, FLOOR - 40 - 16, 16, Collision.CREEP));
+        world.run(2.0);
+        assertTrue(creep.isSleeping());
+        assertTrue(rider.isSleeping());
+
+        creep.speed = Simulator.SLEEP_SPEED / 2;
+        world.run(2.0);
+        assertTrue("creep walked", creep.px > 1040);
+        assertEquals("rider fell to the floor", FLOOR, rider.bottom(), 2.0);
+    }
+
+    /** A thing asleep on top of another must fall when the one below is removed */
+    @Test
+    public void thingRestingOnRemovedThingFalls() {
+        TestWorld world = floorWorld();
+        Thing below = world.add(new TestWorld.Ball(1000, FLOOR - 20, 20, Collision.CREEP));
+        Thing above = world.add(new TestWorld.Ball(1000, FLOOR - 40 - 16, 16, Collision.CREEP));
+        world.run(2.0);
+        assertTrue(above.isSleeping());
+
+        world.removeThing(below);
+        world.step();
+        assertFalse(above.isSleeping());
+        world.run(1.0);
+        assertEquals("fell to the floor", FLOOR, above.bottom(), 2.0);
+    }
+
+    /**
+     * A fast body must not pass through a wall thinner than the distance it moves in one step.
+     * The body starts one step short of the wall, so its first step ends inside it, past the middle.
+     * Without the swept test it would be pushed out of the far side.
+     */
+    @Test
+    public void fastBodyDoesNotTunnelThroughThinWall() {
+        TestWorld world = new TestWorld();
+        TestWorld.Wall wall = world.add(new TestWorld.Wall(500, 0, 4, 1000));
+        Thing bullet = world.add(new TestWorld.Ball(255, 500, 4, Collision.BULLET));
+        bullet.terminalVelocity = 1e9;
+        bullet.vx = 30000; // 250px per step, ending at 505
+        bullet.gravity = 0.0;
+        bullet.drag = 0.0;
+        bullet.elasticity = 1.0;
+
+        for (int i = 0; i < Simulator.N / 4; i++) {
+            world.step();
+            assertTrue("passed the wall at step " + i, bullet.right() <= wall.left() + 1.0);
+        }
+        assertTrue("bounced back", bullet.vx < 0);
+    }
+
+    /**
+     * A deep pile must not sink into the floor. The floor takes none of a push-apart,
+     * so the whole overlap is taken out of the body in one go.
+     */
+    @Test
+    public void pileDoesNotSinkIntoFloor() {
+        TestWorld world = pileWorld(10);
+        world.run(3.0);
+        for (Thing ball : world.bodies) {
+            assertTrue("sank to " + ball.bottom(), ball.bottom() <= FLOOR + 2.0);
+        }
+    }
+
+    /** A thing whose mask leaves out walls is never impact tested against them, so falls through the floor */
+    @Test
+    public void maskedOutPairsDoNotCollide() {
+        TestWorld world = floorWorld();
+        Thing ghost = world.add(new TestWorld.Ball(1000, FLOOR - 40, 16, Collision.CREEP));
+        ghost.collidesWith = Collision.PLAYER;
+        world.run(0.5);
+        assertTrue("fell through", ghost.top() > FLOOR + 40);
+    }
+
+    /** A thing with no type is in every mask, so still lands on walls, even those with narrow masks */
+    @Test
+    public void untypedThingCollidesWithEverything() {
+        TestWorld world = new TestWorld();
+        world.add(new TestWorld.Wall(0, FLOOR, 2000, 40)).collidesWith = Collision.PLAYER;
+        Thing plain = world.add(new TestWorld.Ball(1000, FLOOR - 40, 16, Collision.NULL));
+        world.run(1.0);
+        assertEquals("on the floor", FLOOR, plain.bottom(), 2.0);
+    }
+
+    /** A crowded pile must end up exactly the same with impact tests split across worker threads */
+    @Test
+    public void parallelCollisionsMatchSerial() {
+        TestWorld serial = pileWorld(12);
+        TestWorld parallel = pileWorld(12);
+        parallel.simulator.parallelCollisions = true;
+        try {
+            for (int i = 0; i < 120; i++) {
+                serial.step();
+                parallel.step();
+            }
+        } finally {
+            parallel.simulator.shutdown();
+        }
+
+        for (int i = 0; i < serial.bodies.size(); i++) {
+            Thing s = serial.bodies.get(i), p = parallel.bodies.get(i);
+            assertEquals(s.px, p.px, 0.0);
+            assertEquals(s.py, p.py, 0.0);
+            assertEquals(s.vx, p.vx, 0.0);
+            assertEquals(s.vy, p.vy, 0.0);
+        }
+    }
+
+    /** A box filled with rows of touching balls, enough for many candidate pairs each step */
+    private static TestWorld pileWorld(int rows) {
+        TestWorld world = floorWorld();
+        world.add(new TestWorld.Wall(0, 0, 40, FLOOR));
+        world.add(new TestWorld.Wall(1960, 0, 40, FLOOR));
+        for (int y = 0; y < rows; y++) {
+            for (int x = 0; x < 50; x++) {
+                world.add(new TestWorld.Ball(60 + x * 37 + (y % 2) * 9, FLOOR - 20 - y * 36, 18, Collision.CREEP));
+            }
+        }
+        return world;
+    }
+
+    /** Creep that sets its own speed when it thinks, like a walking creep. Stands still at zero speed */
+    private static class Walker extends TestWorld.Ball {
+        double speed;
+
+        Walker(double x, double y, double r) {
+            super(x, y, r, Collision.CREEP);
+            thinks = true;
+        }
+
+        @Override
+        public int think(SimulationManager level, int ms) {
+            if (speed != 0) vx = speed;
+            return KEEP;
+        }
+    }
+
+    /** A wide world with a floor */
+    private static TestWorld floorWorld() {
+        TestWorld world = new TestWorld();
+        world.add(new TestWorld.Wall(0, FLOOR, 2000, 40));
+        return world;
+    }
+}
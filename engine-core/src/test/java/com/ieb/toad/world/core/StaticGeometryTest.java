@@ -0,0 +1,83 @@
+package com.ieb.toad.world.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class StaticGeometryTest {
+    /** Tree queries give exactly the things a linear scan would, in the order they were added */
+    @Test
+    public void querySameAsLinearScan() {
+        Random random = new Random(2);
+        List<Thing> walls = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            int w = 16 + random.nextInt(300), h = 16 + random.nextInt(60);
+            walls.add(new Box(random.nextInt(8000) - 4000, random.nextInt(8000) - 4000, w, h));
+        }
+
+        StaticGeometry statics = new StaticGeometry();
+        statics.build(walls);
+        checkQueries(statics, walls, random);
+
+        // adding and removing rebuild the tree
+        Thing extra = new Box(-10, -10, 20, 20);
+        statics.add(extra);
+        walls.add(extra);
+        statics.remove(walls.get(7));
+        walls.remove(7);
+        checkQueries(statics, walls, random);
+    }
+
+    @Test
+    public void emptyTreeFindsNothing() {
+        StaticGeometry statics = new StaticGeometry();
+        statics.build(new ArrayList<>());
+        assertEquals(0, statics.query(-1000, -1000, 1000, 1000));
+    }
+
+    private static void checkQueries(StaticGeometry statics, List<Thing> walls, Random random) {
+        for (int q = 0; q < 500; q++) {
+            double left = random.nextDouble() * 9000 - 4500, top = random.nextDouble() * 9000 - 4500;
+            double right = left + random.nextDouble() * 800, bottom = top + random.nextDouble() * 800;
+
+            List<Thing> expected = new ArrayList<>();
+            for (Thing t : walls) {
+                double pad = BroadPhaseGrid.PADDING;
+                if (t.right() + pad < left || t.left() - pad > right) continue;
+                if (t.bottom() + pad < top || t.top() - pad > bottom) continue;
+                expected.add(t);
+            }
+
+            int count = statics.query(left, top, right, bottom);
+            assertEquals("query " + q, expected.size(), count);
+            for (int i = 0; i < count; i++) assertSame(expected.get(i), statics.result(i));
+        }
+    }
+
+    /** Box with fixed edges, like a platform */
+    private static class Box extends Thing {
+        final int left, top, right, bottom;
+
+        Box(int left, int top, int width, int height) {
+            this.left = left;
+            this.top = top;
+            right = left + width;
+            bottom = top + height;
+            radius = -1;
+        }
+
+        @Override
+        public double bottom() {return bottom;}
+        @Override
+        public double top() {return top;}
+        @Override
+        public double right() {return right;}
+        @Override
+        public double left() {return left;}
+    }
+}
@@ -0,0 +1,43 @@
+package com.ieb.toad.world.core;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class SweepTest {
+    private static final double EPSILON = 1e-9;
+
+    @Test
+    public void circleHitsBoxFace() {
+        // radius 5 moving right 100px, box face at x=55: touches when centre reaches 50
+        double t = Sweep.circleVsBox(0, 0, 100, 0, 5, 55, -10, 65, 10);
+        assertEquals(0.5, t, EPSILON);
+    }
+
+    @Test
+    public void circleHitsBoxCornerOnItsRoundedEdge() {
+        // centre passes 3px below the corner at (50,10). The grown box's square corner would give 0.45
+        double t = Sweep.circleVsBox(0, 13, 100, 0, 5, 50, -10, 60, 10);
+        assertEquals((50 - Math.sqrt(25 - 9)) / 100, t, EPSILON);
+    }
+
+    @Test
+    public void missesBoxOutOfReach() {
+        assertEquals(Sweep.MISS, Sweep.circleVsBox(0, 0, 40, 0, 5, 55, -10, 65, 10), 0.0); // stops short
+        assertEquals(Sweep.MISS, Sweep.circleVsBox(0, 0, -100, 0, 5, 55, -10, 65, 10), 0.0); // moving away
+        assertEquals(Sweep.MISS, Sweep.circleVsBox(0, 30, 100, 0, 5, 55, -10, 65, 10), 0.0); // passes by
+    }
+
+    @Test
+    public void touchingAtStartIsNotAnImpact() {
+        assertEquals(Sweep.MISS, Sweep.circleVsBox(52, 0, 100, 0, 5, 55, -10, 65, 10), 0.0);
+        assertEquals(Sweep.MISS, Sweep.circleVsCircle(0, 0, 100, 0, 5, 8, 0, 5), 0.0);
+    }
+
+    @Test
+    public void circleHitsCircle() {
+        // radii 5 + 5, centres 100 apart: touch after moving 90 of 200
+        assertEquals(0.45, Sweep.circleVsCircle(0, 0, 200, 0, 5, 100, 0, 5), EPSILON);
+        assertEquals(Sweep.MISS, Sweep.circleVsCircle(0, 0, 200, 0, 5, 100, 20, 5), 0.0);
+    }
+}
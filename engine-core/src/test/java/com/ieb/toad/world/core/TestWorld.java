@@ -0,0 +1,204 @@
+package com.ieb.toad.world.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A small level for tests: walls and bodies placed by hand, with no loading, drawing, doors or player.
+ * Does the same job as the app's `Level`. The 'screen' covers everything, so all things think at their full rate.
+ */
+class TestWorld implements SimulationManager {
+    final Simulator simulator = new Simulator(this);
+    final ThingSlots bodies = new ThingSlots();
+    final StaticGeometry statics = new StaticGeometry();
+    final ConstraintList constraints = new ConstraintList();
+
+    private final List<Thing> walls = new ArrayList<>();
+    private final Probe probe = new Probe();
+    private boolean built;
+
+    /** Add a thing before the first step. Use `addThing` once the world is running */
+    <T extends Thing> T add(T t) {
+        if (t.immovable) walls.add(t);
+        else bodies.add(t);
+        return t;
+    }
+
+    /** Run one simulator step */
+    void step() {
+        build();
+        simulator.solve(Simulator.STEP_MS, bodies, statics, constraints);
+    }
+
+    /** Run simulator steps covering at least the given time */
+    void run(double seconds) {
+        int steps = (int) Math.ceil(seconds * Simulator.N);
+        for (int i = 0; i < steps; i++) step();
+    }
+
+    private void build() {
+        if (built) return;
+        statics.build(walls);
+        built = true;
+    }
+
+    @Override
+    public int hitTest(double x, double y) {
+        probe.px = x;
+        probe.py = y;
+        return simulator.hitTest(probe);
+    }
+
+    @Override
+    public void hitTest(double[] xs, double[] ys, int count, int[] results) {
+        simulator.hitTest(probe, xs, ys, count, results);
+    }
+
+    @Override
+    public int thingsInArea(double left, double top, double right, double bottom, Thing[] out) {
+        return simulator.queryArea(left, top, right, bottom, out);
+    }
+
+    @Override
+    public int thingsNear(double x, double y, double distance, Thing[] out) {
+        return simulator.queryRadius(x, y, distance, out);
+    }
+
+    @Override
+    public boolean raycast(double x0, double y0, double x1, double y1, int mask, CastHit hit) {
+        return simulator.raycast(x0, y0, x1, y1, mask, hit);
+    }
+
+    @Override
+    public boolean circleCast(double x0, double y0, double x1, double y1, double radius, int mask, CastHit hit) {
+        return simulator.circleCast(x0, y0, x1, y1, radius, mask, hit);
+    }
+
+    @Override
+    public ContactCache contacts() {
+        return simulator.contacts();
+    }
+
+    @Override
+    public void addConstraint(Constraint c) {
+        constraints.add(c);
+    }
+
+    @Override
+    public void removeConstraint(Constraint c) {
+        if (!constraints.remove(c)) return;
+        c.unlink();
+        c.recycle();
+    }
+
+    @Override
+    public void removeThing(Thing t) {
+        boolean removed = t.immovable ? statics.remove(t) : bodies.remove(t);
+        if (!removed) return;
+
+        for (int i = t.linkedConstraintCount() - 1; i >= 0; i--) {
+            removeConstraint(t.linkedConstraint(i));
+        }
+        simulator.thingRemoved(t);
+        t.despawned(this);
+    }
+
+    @Override
+    public Thing findThing(long handle) {
+        return bodies.find(handle);
+    }
+
+    @Override
+    public void moveNextDoor(String target, int srcObjId) {
+    }
+
+    @Override
+    public void damagePlayer() {
+    }
+
+    @Override
+    public void addThing(Thing thing) {
+        if (thing.immovable) statics.add(thing);
+        else bodies.add(thing);
+        simulator.objectsChanged();
+    }
+
+    @Override
+    public boolean isOnScreen(Thing thing) {
+        return true;
+    }
+
+    @Override
+    public double screenDistance(Thing thing) {
+        return 0.0;
+    }
+
+    /** Immovable box. Works like the app's `SolidPlatform` */
+    static class Wall extends Thing {
+        final Aabb hitBox;
+
+        Wall(int left, int top, int width, int height) {
+            hitBox = new Aabb(left, top, left + width, top + height);
+            type = Collision.WALL;
+            mass = 10;
+            radius = -1;
+            elasticity = 0.2;
+            drag = 1.0;
+            gravity = 0.0;
+            immovable = true;
+        }
+
+        @Override
+        public boolean preImpactTest(Thing other) {
+            if (other.type == Collision.WALL) return SKIP_IMPACT;
+
+            radius = 1.0;
+            px = Math.min(Math.max(other.px, hitBox.left + 1), hitBox.right - 1);
+            py = Math.min(Math.max(other.py, hitBox.top + 1), hitBox.bottom - 1);
+            mass = other.mass;
+            elasticity = other.elasticity;
+
+            double ot = other.py - other.radius;
+            double ob = other.py + other.radius;
+            double ol = other.px - other.radius;
+            double or = other.px + other.radius;
+            vx = (ot > hitBox.bottom || ob < hitBox.top) ? other.vx : -other.vx;
+            vy = (ol > hitBox.right || or < hitBox.left) ? other.vy : -other.vy;
+            return DO_IMPACT;
+        }
+
+        @Override
+        public void postImpactTest() {
+            radius = -1.0;
+        }
+
+        @Override
+        public double bottom() {return hitBox.bottom;}
+        @Override
+        public double top() {return hitBox.top;}
+        @Override
+        public double right() {return hitBox.right;}
+        @Override
+        public double left() {return hitBox.left;}
+    }
+
+    /** Round body of a given type */
+    static class Ball extends Thing {
+        Ball(double x, double y, double r, int type) {
+            px = x;
+            py = y;
+            radius = r;
+            this.type = type;
+            mass = 1.0;
+        }
+    }
+
+    /** Point used for `hitTest`. Like the app's `PointThing` */
+    private static class Probe extends Thing {
+        Probe() {
+            type = Collision.SENSOR;
+            radius = 1;
+            gravity = 0.0;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.ieb.toad.world.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class ThingSlotsTest {
+    @Test
+    public void handleFindsThingUntilRemoved() {
+        ThingSlots slots = new ThingSlots();
+        Thing a = ball(), b = ball(), c = ball();
+        slots.add(a);
+        slots.add(b);
+        slots.add(c);
+
+        long handleB = b.handle();
+        assertSame(b, slots.find(handleB));
+
+        assertTrue(slots.remove(b));
+        assertNull(slots.find(handleB));
+        assertEquals(ThingSlots.NO_HANDLE, b.handle());
+        assertFalse(slots.contains(b));
+        assertFalse("already removed", slots.remove(b));
+
+        // the others are still found after the gap was closed up
+        assertSame(a, slots.find(a.handle()));
+        assertSame(c, slots.find(c.handle()));
+        assertEquals(2, slots.size());
+    }
+
+    /** A handle kept after its thing was removed must not find the thing that reuses its slot */
+    @Test
+    public void staleHandleMissesReusedSlot() {
+        ThingSlots slots = new ThingSlots();
+        Thing a = ball();
+        slots.add(a);
+        long stale = a.handle();
+        slots.remove(a);
+
+        Thing b = ball();
+        slots.add(b);
+        assertNotEquals(stale, b.handle());
+        assertNull(slots.find(stale));
+        assertSame(b, slots.find(b.handle()));
+
+        // re-adding the old thing gives it a new handle too
+        slots.add(a);
+        assertNotEquals(stale, a.handle());
+        assertNull(slots.find(stale));
+        assertSame(a, slots.find(a.handle()));
+    }
+
+    @Test
+    public void addingTwiceHasNoEffect() {
+        ThingSlots slots = new ThingSlots();
+        Thing a = ball();
+        assertTrue(slots.add(a));
+        long handle = a.handle();
+        assertFalse(slots.add(a));
+        assertEquals(1, slots.size());
+        assertEquals(handle, a.handle());
+    }
+
+    /** Removing keeps the others in the order they were added, as pairs are solved in this order */
+    @Test
+    public void removingKeepsOrder() {
+        ThingSlots slots = new ThingSlots();
+        Thing a = ball(), b = ball(), c = ball(), d = ball();
+        slots.add(a);
+        slots.add(b);
+        slots.add(c);
+        slots.add(d);
+
+        slots.remove(a);
+        slots.remove(c);
+        assertEquals(2, slots.size());
+        assertSame(b, slots.get(0));
+        assertSame(d, slots.get(1));
+
+        // added things go on the end, even when they reuse a removed thing's slot
+        slots.add(a);
+        assertSame(b, slots.get(0));
+        assertSame(d, slots.get(1));
+        assertSame(a, slots.get(2));
+        assertSame(d, slots.find(d.handle()));
+    }
+
+    /** Many adds and removes, checked against a plain model */
+    @Test
+    public void manyAddsAndRemoves() {
+        ThingSlots slots = new ThingSlots();
+        List<Thing> model = new ArrayList<>();
+        List<Long> staleHandles = new ArrayList<>();
+        Random random = new Random(5);
+
+        for (int i = 0; i < 5000; i++) {
+            if (model.isEmpty() || random.nextInt(3) > 0) {
+                Thing t = ball();
+                slots.add(t);
+                model.add(t);
+            } else {
+                Thing t = model.remove(random.nextInt(model.size()));
+                staleHandles.add(t.handle());
+                slots.remove(t);
+            }
+        }
+
+        assertEquals(model, slots);
+        for (Thing t : model) {
+            assertSame(t, slots.find(t.handle()));
+            assertTrue(slots.contains(t));
+        }
+        for (long handle : staleHandles) assertNull(slots.find(handle));
+    }
+
+    private static Thing ball() {
+        return new TestWorld.Ball(0, 0, 8, Collision.CREEP);
+    }
+}